@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockPart;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Compares looking up the shaded colour of every cell of a frame in a map keyed by block,
+ * as the renderer used to, with the table indexed by block id and depth of the {@link BlockTileCache}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BlockTileCacheLookupBenchmark {
+
+    // a 1280 x 720 frame at zoom level 3
+    private static final int CELL_COUNT = 320 * 180;
+    private static final int DEPTHS_OF_TRANSPARENCY = 16;
+    private static final BlockPart BLOCK_PART = BlockPart.TOP;
+
+    private Block[] cellBlocks;
+    private int[] cellDepths;
+
+    private Map<Block, int[]> shadedColorsByBlock;
+    private BlockTileCache tileCache;
+
+    @Setup
+    public void setup() {
+        SyntheticWorld world = new SyntheticWorld();
+        List<Block> blocks = world.getSolidBlocks();
+
+        float[] darken = new float[DEPTHS_OF_TRANSPARENCY];
+        darken[0] = 1f;
+        for (int i = 1; i < DEPTHS_OF_TRANSPARENCY; i++) {
+            darken[i] = (DEPTHS_OF_TRANSPARENCY - i) / ((float) DEPTHS_OF_TRANSPARENCY);
+        }
+
+        tileCache = new BlockTileCache(world.getTerrainTexture(), world.getRelativeTileSize(), darken);
+        tileCache.preload(blocks, BLOCK_PART);
+
+        int[] shadedLut = tileCache.getShadedLut(BLOCK_PART);
+        shadedColorsByBlock = Maps.newHashMap();
+        for (Block block : blocks) {
+            int[] shadedColors = new int[DEPTHS_OF_TRANSPARENCY];
+            System.arraycopy(shadedLut, block.getId() * DEPTHS_OF_TRANSPARENCY, shadedColors, 0, DEPTHS_OF_TRANSPARENCY);
+            shadedColorsByBlock.put(block, shadedColors);
+        }
+
+        Random random = new Random(0);
+        cellBlocks = new Block[CELL_COUNT];
+        cellDepths = new int[CELL_COUNT];
+        for (int i = 0; i < CELL_COUNT; i++) {
+            cellBlocks[i] = blocks.get(random.nextInt(blocks.size()));
+            cellDepths[i] = random.nextInt(DEPTHS_OF_TRANSPARENCY);
+        }
+    }
+
+    @Benchmark
+    public int hashMapLookup() {
+        int sum = 0;
+        for (int i = 0; i < CELL_COUNT; i++) {
+            sum += shadedColorsByBlock.get(cellBlocks[i])[cellDepths[i]];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int idIndexedLookup() {
+        int[] shadedLut = tileCache.getShadedLut(BLOCK_PART);
+        int depthCount = tileCache.getDepthCount();
+        int sum = 0;
+        for (int i = 0; i < CELL_COUNT; i++) {
+            sum += shadedLut[cellBlocks[i].getId() * depthCount + cellDepths[i]];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.BlockPart;
+
+import com.google.common.math.IntMath;
+
+/**
+ * Measures the tile pass of the {@link BlockTileWorldRenderer} for every zoom level and axis,
+ * on a 1280 x 720 frame of a {@link SyntheticWorld}.
+ * The render mode and block part are picked the same way the world renderer picks them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BlockTileRasterizerBenchmark {
+
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+
+    // the top down view starts in the air above the hills
+    private static final Vector3i CENTER = new Vector3i(0, 40, 0);
+
+    @Param({"1", "2", "3", "4", "5", "6", "7"})
+    private int zoomLevel;
+
+    @Param({"XZ_AXIS", "YZ_AXIS", "XY_AXIS"})
+    private DisplayAxisType axis;
+
+    @Param({"1"})
+    private int renderThreads;
+
+    @Param({"16"})
+    private int depthsOfTransparency;
+
+    private BlockTileRasterizer rasterizer;
+    private BlockTileRasterizer.RenderMode renderMode;
+    private BlockPart blockPart;
+    private TileView view;
+    private TileView[] scrolledViews;
+    private int frame;
+
+    private BufferedImage image;
+    private Graphics2D g;
+
+    @Setup
+    public void setup() {
+        SyntheticWorld world = new SyntheticWorld();
+
+        float[] darken = new float[depthsOfTransparency];
+        darken[0] = 1f;
+        for (int i = 1; i < depthsOfTransparency; i++) {
+            darken[i] = (depthsOfTransparency - i) / ((float) depthsOfTransparency);
+        }
+
+        // a move within the slice, so that the previous frame can be scrolled
+        Vector3i scrolledCenter = new Vector3i(CENTER);
+        switch (axis) {
+            case XZ_AXIS:
+                blockPart = BlockPart.TOP;
+                scrolledCenter.x++;
+                break;
+            case YZ_AXIS:
+                blockPart = BlockPart.LEFT;
+                scrolledCenter.z++;
+                break;
+            case XY_AXIS:
+                blockPart = BlockPart.FRONT;
+                scrolledCenter.y++;
+                break;
+            default:
+                throw new RuntimeException("illegal displayAxisType " + axis);
+        }
+
+        int blockTileSize = 1 << (zoomLevel - 1);
+        if (blockTileSize == 1) {
+            renderMode = BlockTileRasterizer.RenderMode.POINT;
+        } else if (blockTileSize <= 4) {
+            renderMode = BlockTileRasterizer.RenderMode.SQUARE;
+        } else {
+            renderMode = BlockTileRasterizer.RenderMode.IMAGE;
+        }
+
+        ProjectedSurfaceCache surfaceCache = new ProjectedSurfaceCache(world.getChunkProvider(), world.getAir(), depthsOfTransparency);
+        BlockTileCache tileCache = new BlockTileCache(world.getTerrainTexture(), world.getRelativeTileSize(), darken);
+        tileCache.preload(world.getSolidBlocks(), blockPart);
+        rasterizer = new BlockTileRasterizer(surfaceCache, tileCache, new RenderMetrics(), darken, renderThreads);
+
+        view = createView(blockTileSize, CENTER);
+        scrolledViews = new TileView[]{view, createView(blockTileSize, scrolledCenter)};
+
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g = image.createGraphics();
+
+        // builds the surfaces and the scaled atlas
+        rasterizer.render(g, view, renderMode, blockPart, WIDTH, HEIGHT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        rasterizer.dispose();
+        g.dispose();
+    }
+
+    /**
+     * Every cell is drawn again, as after a zoom or an axis change.
+     */
+    @Benchmark
+    public BufferedImage fullFrame() {
+        rasterizer.invalidate();
+        rasterizer.render(g, view, renderMode, blockPart, WIDTH, HEIGHT);
+        return image;
+    }
+
+    /**
+     * The camera moves one block back and forth within the slice, as while walking.
+     */
+    @Benchmark
+    public BufferedImage scrolledFrame() {
+        TileView scrolledView = scrolledViews[frame++ & 1];
+        rasterizer.render(g, scrolledView, renderMode, blockPart, WIDTH, HEIGHT);
+        return image;
+    }
+
+    /**
+     * Neither the camera nor the world changed, the previous frame is drawn again.
+     */
+    @Benchmark
+    public BufferedImage unchangedFrame() {
+        rasterizer.render(g, view, renderMode, blockPart, WIDTH, HEIGHT);
+        return image;
+    }
+
+    private TileView createView(int blockTileSize, Vector3i center) {
+        int blocksWide = IntMath.divide(WIDTH, blockTileSize, RoundingMode.CEILING);
+        int blocksHigh = IntMath.divide(HEIGHT, blockTileSize, RoundingMode.CEILING);
+        int mapCenterX = (int) ((blocksWide + 0.5f) / 2f);
+        int mapCenterY = (int) ((blocksHigh + 0.5f) / 2f);
+        return new TileView(axis, center, blockTileSize, blocksWide, blocksHigh, mapCenterX, mapCenterY);
+    }
+}
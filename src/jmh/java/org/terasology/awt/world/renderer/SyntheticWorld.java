@@ -0,0 +1,257 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+
+import org.terasology.engine.subsystem.awt.assets.AwtTexture;
+import org.terasology.engine.subsystem.awt.assets.BenchmarkAssets;
+import org.terasology.math.geom.BaseVector3i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkProvider;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * An endless, generated world of rolling hills that lives in memory only.
+ * Chunks are generated when they are first asked for and are always ready.
+ * The chunk provider and the chunks are proxies, only the methods the renderer uses are answered.
+ */
+public class SyntheticWorld {
+
+    private static final int TILES_PER_ROW = 16;
+    private static final int TILE_PIXELS = 16;
+
+    private static final int SEA_LEVEL = 24;
+
+    private final Block air;
+    private final Block grass;
+    private final Block dirt;
+    private final Block stone;
+    private final Block sand;
+    private final Block water;
+    private final List<Block> solidBlocks;
+
+    private final AwtTexture terrainTexture;
+
+    private final Map<Vector3i, Chunk> chunks = Maps.newConcurrentMap();
+    private final ChunkProvider chunkProvider;
+
+    public SyntheticWorld() {
+        air = createBlock(0, "engine:air");
+        grass = createBlock(1, "benchmark:grass");
+        dirt = createBlock(2, "benchmark:dirt");
+        stone = createBlock(3, "benchmark:stone");
+        sand = createBlock(4, "benchmark:sand");
+        water = createBlock(5, "benchmark:water");
+        solidBlocks = Lists.newArrayList(grass, dirt, stone, sand, water);
+
+        terrainTexture = BenchmarkAssets.createTexture(TILES_PER_ROW * TILE_PIXELS, 0);
+
+        chunkProvider = (ChunkProvider) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ChunkProvider.class}, new ChunkProviderHandler());
+    }
+
+    public ChunkProvider getChunkProvider() {
+        return chunkProvider;
+    }
+
+    public Block getAir() {
+        return air;
+    }
+
+    /**
+     * @return all blocks except air
+     */
+    public List<Block> getSolidBlocks() {
+        return solidBlocks;
+    }
+
+    public AwtTexture getTerrainTexture() {
+        return terrainTexture;
+    }
+
+    /**
+     * @return the size of one block face relative to the terrain texture
+     */
+    public float getRelativeTileSize() {
+        return 1f / TILES_PER_ROW;
+    }
+
+    /**
+     * @return the world y of the highest non-air block of the column
+     */
+    public int getGroundHeight(int x, int z) {
+        double height = 28 + 10 * Math.sin(x / 23.0) * Math.cos(z / 31.0) + 3 * Math.sin((x + z) / 7.0);
+        return (int) height;
+    }
+
+    private Block getBlockAt(int x, int y, int z) {
+        int ground = getGroundHeight(x, z);
+        if (y > ground) {
+            return (y <= SEA_LEVEL) ? water : air;
+        }
+        if (y == ground) {
+            return (ground <= SEA_LEVEL + 1) ? sand : grass;
+        }
+        return (y > ground - 4) ? dirt : stone;
+    }
+
+    private Block createBlock(int id, String uri) {
+        Map<BlockPart, BlockMeshPart> meshParts = Maps.newEnumMap(BlockPart.class);
+        Map<BlockPart, Vector2f> atlasPositions = Maps.newEnumMap(BlockPart.class);
+        for (BlockPart blockPart : BlockPart.values()) {
+            // each block part of each block gets a tile of its own
+            int tile = id * BlockPart.values().length + blockPart.ordinal();
+            atlasPositions.put(blockPart, new Vector2f(
+                    (tile % TILES_PER_ROW) * getRelativeTileSize(),
+                    (tile / TILES_PER_ROW) * getRelativeTileSize()));
+        }
+
+        Block block = new Block();
+        block.setId((short) id);
+        block.setUri(new BlockUri(uri));
+        block.setPrimaryAppearance(new BlockAppearance(meshParts, atlasPositions));
+        return block;
+    }
+
+    private Chunk generateChunk(Vector3i chunkPos) {
+        Block[] blocks = new Block[ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z];
+        int worldX = chunkPos.x * ChunkConstants.SIZE_X;
+        int worldY = chunkPos.y * ChunkConstants.SIZE_Y;
+        int worldZ = chunkPos.z * ChunkConstants.SIZE_Z;
+        for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+            for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                    blocks[index(x, y, z)] = getBlockAt(worldX + x, worldY + y, worldZ + z);
+                }
+            }
+        }
+        return (Chunk) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Chunk.class}, new ChunkHandler(chunkPos, blocks));
+    }
+
+    private static int index(int x, int y, int z) {
+        return (z * ChunkConstants.SIZE_Y + y) * ChunkConstants.SIZE_X + x;
+    }
+
+    private static Object getDefaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == char.class) {
+            return (char) 0;
+        }
+        return null;
+    }
+
+    private class ChunkProviderHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getChunk":
+                    Vector3i chunkPos;
+                    if (args.length == 1) {
+                        chunkPos = new Vector3i((BaseVector3i) args[0]);
+                    } else {
+                        chunkPos = new Vector3i((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+                    }
+                    if (chunkPos.y != 0) {
+                        // the world is one chunk high
+                        return null;
+                    }
+                    return chunks.computeIfAbsent(chunkPos, SyntheticWorld.this::generateChunk);
+                case "isChunkReady":
+                    return true;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "SyntheticWorld.ChunkProvider";
+                default:
+                    return getDefaultValue(method);
+            }
+        }
+    }
+
+    private static class ChunkHandler implements InvocationHandler {
+
+        private final Vector3i chunkPos;
+        private final Block[] blocks;
+
+        ChunkHandler(Vector3i chunkPos, Block[] blocks) {
+            this.chunkPos = chunkPos;
+            this.blocks = blocks;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getBlock":
+                    if (args.length == 1) {
+                        BaseVector3i pos = (BaseVector3i) args[0];
+                        return blocks[index(pos.x(), pos.y(), pos.z())];
+                    }
+                    return blocks[index((Integer) args[0], (Integer) args[1], (Integer) args[2])];
+                case "isReady":
+                    return true;
+                case "getPosition":
+                    return new Vector3i(chunkPos);
+                case "getChunkSizeX":
+                    return ChunkConstants.SIZE_X;
+                case "getChunkSizeY":
+                    return ChunkConstants.SIZE_Y;
+                case "getChunkSizeZ":
+                    return ChunkConstants.SIZE_Z;
+                case "hashCode":
+                    return chunkPos.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "SyntheticWorld.Chunk" + chunkPos;
+                default:
+                    return getDefaultValue(method);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.assets;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.math.geom.Vector2i;
+
+/**
+ * Compares the font metrics of {@link AwtFont}, which come from a table resolved on reload,
+ * with the former way of creating a graphics and a font for every query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AwtFontBenchmark {
+
+    private static final String TEXT = "Terasology\nInventory: 12 items";
+    private static final List<String> LINES = Arrays.asList("Start Game", "Settings", "Exit");
+
+    private AwtFont font;
+
+    @Setup
+    public void setup() {
+        font = BenchmarkAssets.createDefaultFont();
+    }
+
+    @Benchmark
+    public int getWidth() {
+        return font.getWidth(TEXT);
+    }
+
+    @Benchmark
+    public int getLineHeight() {
+        return font.getLineHeight();
+    }
+
+    @Benchmark
+    public Vector2i getSize() {
+        return font.getSize(LINES);
+    }
+
+    @Benchmark
+    public int getWidthPerQueryGraphics() {
+        BufferedImage graphicsProvider = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = graphicsProvider.createGraphics();
+        g2.setFont(new Font("DialogInput", Font.BOLD, 14));
+        FontMetrics fontMetrics = g2.getFontMetrics();
+
+        int largestWidth = 0;
+        for (String string : TEXT.split("\n")) {
+            Rectangle2D stringBounds = fontMetrics.getStringBounds(string, g2);
+            largestWidth = Math.max(largestWidth, (int) stringBounds.getWidth());
+        }
+        g2.dispose();
+        return largestWidth;
+    }
+
+    @Benchmark
+    public int getLineHeightPerQueryGraphics() {
+        BufferedImage graphicsProvider = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = graphicsProvider.createGraphics();
+        g2.setFont(new Font("DialogInput", Font.BOLD, 14));
+        int height = g2.getFontMetrics().getHeight();
+        g2.dispose();
+        return height;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.assets;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.rendering.nui.Color;
+
+/**
+ * Measures {@link AwtTexture#getBufferedImage(int, int, float, Color)} for a texture that is already
+ * converted for the given alpha and colour, and for one that has to be converted first.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class AwtTextureBenchmark {
+
+    @Param({"64", "512"})
+    private int size;
+
+    @Param({"1.0", "0.5"})
+    private float alpha;
+
+    @Param({"FFFFFFFF", "FF8040FF"})
+    private String colorHex;
+
+    private Color color;
+    private AwtTexture cachedTexture;
+    private AwtTexture freshTexture;
+
+    @Setup
+    public void setup() {
+        color = new Color((int) Long.parseLong(colorHex, 16));
+        cachedTexture = BenchmarkAssets.createTexture(size, 0);
+        cachedTexture.getBufferedImage(size, size, alpha, color);
+    }
+
+    @Setup(Level.Invocation)
+    public void createFreshTexture() {
+        freshTexture = BenchmarkAssets.createTexture(size, 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 10, time = 1)
+    public BufferedImage cached() {
+        return cachedTexture.getBufferedImage(size, size, alpha, color);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 20)
+    @Measurement(iterations = 50)
+    public BufferedImage converted() {
+        return freshTexture.getBufferedImage(size, size, alpha, color);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.assets;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.terasology.assets.AssetFactory;
+import org.terasology.assets.AssetType;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.rendering.assets.font.Font;
+import org.terasology.rendering.assets.font.FontData;
+import org.terasology.rendering.assets.font.FontDataBuilder;
+import org.terasology.rendering.assets.texture.Texture;
+import org.terasology.rendering.assets.texture.TextureData;
+
+/**
+ * Creates the AWT assets used by the benchmarks without an asset manager or any module on the class path.
+ */
+public final class BenchmarkAssets {
+
+    private static final AssetType<Texture, TextureData> TEXTURE_TYPE =
+            new AssetType<>(Texture.class, (AssetFactory<Texture, TextureData>) AwtTexture::new);
+    private static final AssetType<Font, FontData> FONT_TYPE =
+            new AssetType<>(Font.class, (AssetFactory<Font, FontData>) AwtFont::new);
+
+    private static int textureCounter;
+
+    private BenchmarkAssets() {
+    }
+
+    /**
+     * Creates a square texture filled with opaque noise, so that scaling and averaging cannot take any shortcut.
+     * @param size the width and height in pixels
+     * @param seed the seed of the noise
+     */
+    public static AwtTexture createTexture(int size, long seed) {
+        Random random = new Random(seed);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size * size * 4);
+        for (int i = 0; i < size * size; i++) {
+            // RGBA, as the PNG loader produces it
+            buffer.putInt((random.nextInt() & 0xFFFFFF00) | 0xFF);
+        }
+        buffer.flip();
+
+        TextureData data = new TextureData(size, size, new ByteBuffer[]{buffer}, Texture.WrapMode.CLAMP, Texture.FilterMode.NEAREST);
+        ResourceUrn urn = new ResourceUrn("benchmark", "texture" + textureCounter++);
+        return (AwtTexture) TEXTURE_TYPE.loadAsset(urn, data);
+    }
+
+    /**
+     * Creates the engine default font.
+     */
+    public static AwtFont createDefaultFont() {
+        FontDataBuilder builder = new FontDataBuilder();
+        builder.setLineHeight(16);
+        builder.setBaseHeight(12);
+        return (AwtFont) FONT_TYPE.loadAsset(new ResourceUrn("engine", "default"), builder.build());
+    }
+}
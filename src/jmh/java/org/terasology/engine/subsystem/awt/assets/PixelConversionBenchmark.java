@@ -0,0 +1,196 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.assets;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DirectColorModel;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.rendering.nui.Color;
+
+/**
+ * Compares the bulk pixel conversion of {@link AwtTexture} with the former rasters that converted every pixel
+ * in a {@link DataBuffer#getElem(int, int)} callback. Both produce an image and draw it once, as the texture cache does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PixelConversionBenchmark {
+
+    @Param({"64", "512"})
+    private int size;
+
+    @Param({"NONE", "ALPHA", "ALPHA_AND_COLOR"})
+    private String tint;
+
+    private float alpha;
+    private Color color;
+    private ByteBuffer rgbaPixels;
+
+    private BufferedImage target;
+    private Graphics2D g;
+
+    @Setup
+    public void setup() {
+        switch (tint) {
+            case "NONE":
+                alpha = 1f;
+                color = Color.WHITE;
+                break;
+            case "ALPHA":
+                alpha = 0.5f;
+                color = Color.WHITE;
+                break;
+            case "ALPHA_AND_COLOR":
+                alpha = 0.5f;
+                color = new Color(0xFF8040FF);
+                break;
+            default:
+                throw new RuntimeException("illegal tint " + tint);
+        }
+
+        rgbaPixels = BenchmarkAssets.createTexture(size, 0).getData().getBuffers()[0];
+
+        target = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        g = target.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage bulkConversion() {
+        int[] pixels = new int[size * size];
+        rgbaPixels.asIntBuffer().get(pixels);
+        AwtTexture.convertPixels(pixels, alpha, color);
+        BufferedImage image = AwtTexture.createArgbImage(pixels, size, size);
+        g.drawImage(image, 0, 0, null);
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage perPixelDataBuffer() {
+        IntBuffer buf = rgbaPixels.asIntBuffer();
+        DataBuffer dataBuffer;
+        if (!color.equals(Color.WHITE)) {
+            dataBuffer = new AlphaAndColorDataBuffer(buf, alpha, color);
+        } else if (alpha != 1f) {
+            dataBuffer = new AlphaOnlyDataBuffer(buf, alpha);
+        } else {
+            dataBuffer = new UnmodifiedDataBuffer(buf);
+        }
+        SampleModel sm = new SinglePixelPackedSampleModel(DataBuffer.TYPE_INT, size, size,
+                new int[]{0xFF000000, 0xFF0000, 0xFF00, 0xFF});
+        WritableRaster raster = new WritableRaster(sm, dataBuffer, new java.awt.Point()) {
+        };
+        BufferedImage image = new BufferedImage(new DirectColorModel(32, 0xFF000000, 0xFF0000, 0xFF00, 0xFF), raster, false, null);
+        g.drawImage(image, 0, 0, null);
+        return target;
+    }
+
+    private static final class AlphaAndColorDataBuffer extends DataBuffer {
+        private final IntBuffer buf;
+        private final float red;
+        private final float green;
+        private final float blue;
+        private final float alpha;
+
+        AlphaAndColorDataBuffer(IntBuffer buf, float alpha, Color color) {
+            super(DataBuffer.TYPE_INT, buf.limit());
+            this.buf = buf;
+            this.red = color.rf();
+            this.green = color.gf();
+            this.blue = color.bf();
+            this.alpha = alpha * color.af();
+        }
+
+        @Override
+        public int getElem(int bank, int i) {
+            int v = buf.get(i);
+            return ((int) ((((v & 0xFF000000) >> 24) * red)) << 24)
+                   | ((int) ((((v & 0xFF0000) >> 16) * green)) << 16)
+                   | ((int) ((((v & 0xFF00) >> 8) * blue)) << 8)
+                   | ((int) ((v & 0xFF) * alpha));
+        }
+
+        @Override
+        public void setElem(int bank, int i, int val) {
+        }
+    }
+
+    private static final class AlphaOnlyDataBuffer extends DataBuffer {
+        private final IntBuffer buf;
+        private final float alpha;
+
+        AlphaOnlyDataBuffer(IntBuffer buf, float alpha) {
+            super(DataBuffer.TYPE_INT, buf.limit());
+            this.buf = buf;
+            this.alpha = alpha;
+        }
+
+        @Override
+        public int getElem(int bank, int i) {
+            int v = buf.get(i);
+            return (v & 0xFFFFFF00) | ((int) ((v & 0xFF) * alpha));
+        }
+
+        @Override
+        public void setElem(int bank, int i, int val) {
+        }
+    }
+
+    private static final class UnmodifiedDataBuffer extends DataBuffer {
+        private final IntBuffer buf;
+
+        UnmodifiedDataBuffer(IntBuffer buf) {
+            super(DataBuffer.TYPE_INT, buf.limit());
+            this.buf = buf;
+        }
+
+        @Override
+        public int getElem(int bank, int i) {
+            return buf.get(i);
+        }
+
+        @Override
+        public void setElem(int bank, int i, int val) {
+        }
+    }
+}
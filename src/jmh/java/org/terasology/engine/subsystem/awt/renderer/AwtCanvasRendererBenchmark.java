@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.renderer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.subsystem.awt.assets.AwtFont;
+import org.terasology.engine.subsystem.awt.assets.AwtTexture;
+import org.terasology.engine.subsystem.awt.assets.BenchmarkAssets;
+import org.terasology.engine.subsystem.awt.devices.AwtOffscreenDisplayDevice;
+import org.terasology.math.Border;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.rendering.nui.Color;
+import org.terasology.rendering.nui.HorizontalAlign;
+import org.terasology.rendering.nui.ScaleMode;
+import org.terasology.rendering.nui.VerticalAlign;
+
+/**
+ * Measures the text and the texture drawing of the {@link AwtCanvasRenderer},
+ * which make up most of the time spent on the UI. Draws into an {@link AwtOffscreenDisplayDevice}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AwtCanvasRendererBenchmark {
+
+    private static final String SHORT_TEXT = "Start Game";
+    private static final String LONG_TEXT = "Terasology is a game that pays ode to Minecraft in ways, "
+            + "but tries to do its own thing with the voxel concept.\n"
+            + "It is an open source project started to research procedural terrain generation "
+            + "and efficient rendering techniques in Java.";
+
+    private static final Rect2i TEXT_REGION = Rect2i.createFromMinAndSize(100, 100, 400, 300);
+    private static final Rect2i BUTTON_REGION = Rect2i.createFromMinAndSize(100, 100, 256, 48);
+    private static final Rect2i ICON_REGION = Rect2i.createFromMinAndSize(100, 100, 64, 64);
+    private static final Color TINT = new Color(0xFF8040FF);
+    private static final Border BORDER = new Border(8, 8, 8, 8);
+
+    @Param({"false", "true"})
+    private boolean glyphAtlasText;
+
+    private AwtOffscreenDisplayDevice display;
+    private AwtCanvasRenderer canvasRenderer;
+    private AwtFont font;
+    private AwtTexture texture;
+
+    @Setup
+    public void setup() {
+        display = new AwtOffscreenDisplayDevice(1280, 720);
+        canvasRenderer = new AwtCanvasRenderer(display, new ContextImpl());
+        canvasRenderer.setGlyphAtlasText(glyphAtlasText);
+        font = BenchmarkAssets.createDefaultFont();
+        texture = BenchmarkAssets.createTexture(32, 0);
+    }
+
+    @Setup(Level.Iteration)
+    public void preRender() {
+        canvasRenderer.preRender();
+        canvasRenderer.crop(Rect2i.createFromMinAndSize(0, 0, display.getWidth(), display.getHeight()));
+    }
+
+    @TearDown(Level.Iteration)
+    public void postRender() {
+        canvasRenderer.postRender();
+    }
+
+    @Benchmark
+    public void drawShortText() {
+        canvasRenderer.drawText(SHORT_TEXT, font, HorizontalAlign.CENTER, VerticalAlign.MIDDLE, TEXT_REGION,
+                Color.WHITE, Color.BLACK, 1f, false);
+    }
+
+    @Benchmark
+    public void drawLongText() {
+        canvasRenderer.drawText(LONG_TEXT, font, HorizontalAlign.LEFT, VerticalAlign.TOP, TEXT_REGION,
+                Color.WHITE, Color.BLACK, 1f, false);
+    }
+
+    @Benchmark
+    public void drawTextureFaded() {
+        canvasRenderer.drawTexture(texture, Color.WHITE, ScaleMode.STRETCH, ICON_REGION, 0f, 0f, 1f, 1f, 0.5f);
+    }
+
+    @Benchmark
+    public void drawTextureTinted() {
+        canvasRenderer.drawTexture(texture, TINT, ScaleMode.STRETCH, ICON_REGION, 0f, 0f, 1f, 1f, 1f);
+    }
+
+    @Benchmark
+    public void drawTextureBorderedStretched() {
+        canvasRenderer.drawTextureBordered(texture, BUTTON_REGION, BORDER, false, 0f, 0f, 1f, 1f, 1f);
+    }
+
+    @Benchmark
+    public void drawTextureBorderedTiled() {
+        canvasRenderer.drawTextureBordered(texture, BUTTON_REGION, BORDER, true, 0f, 0f, 1f, 1f, 1f);
+    }
+}
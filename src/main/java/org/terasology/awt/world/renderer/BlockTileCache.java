@@ -0,0 +1,276 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.terasology.engine.subsystem.awt.assets.AwtTexture;
+import org.terasology.engine.subsystem.awt.renderer.CompatibleImages;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.rendering.assets.texture.BasicTextureRegion;
+import org.terasology.rendering.assets.texture.Texture;
+import org.terasology.rendering.assets.texture.TextureRegion;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockPart;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Holds the image and the average colour of each block face as it is drawn by the {@link BlockTileRasterizer}.
+ * The faces are kept in arrays indexed by block id, which grow when blocks with higher ids show up.
+ * Lookups are safe from the render bands, loading is only done on the render thread while no band runs.
+ */
+public class BlockTileCache {
+
+    private static final org.terasology.rendering.nui.Color WHITE = org.terasology.rendering.nui.Color.WHITE;
+
+    private final Texture textureAtlas;
+    private final float relativeTileSize;
+    private final float[] darken;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Indexed by BlockPart.ordinal()
+    private final PartTiles[] partTiles = new PartTiles[BlockPart.values().length];
+
+    // Pre-scaled tiles per tile size, dropped by the garbage collector when memory runs low
+    private final Map<BlockPart, Map<Integer, SoftReference<ScaledTileAtlas>>> scaledAtlases = new EnumMap<>(BlockPart.class);
+
+    /**
+     * @param textureAtlas the terrain texture
+     * @param relativeTileSize the size of one block face relative to the texture atlas
+     * @param darken the brightness factor for each depth of transparency
+     */
+    public BlockTileCache(Texture textureAtlas, float relativeTileSize, float[] darken) {
+        this.textureAtlas = textureAtlas;
+        this.relativeTileSize = relativeTileSize;
+        this.darken = darken;
+
+        for (BlockPart blockPart : BlockPart.values()) {
+            partTiles[blockPart.ordinal()] = new PartTiles(darken.length);
+            scaledAtlases.put(blockPart, Maps.newHashMap());
+        }
+    }
+
+    /**
+     * Returns the table of the final colours of all loaded block faces of one block part.
+     * The colour of a block at a depth is at <code>block id * depth count + depth</code> and is 0 if it has not been loaded yet.
+     * The table is replaced when it grows, so fetch it again after loading.
+     */
+    public int[] getShadedLut(BlockPart blockPart) {
+        return partTiles[blockPart.ordinal()].shadedLut;
+    }
+
+    /**
+     * @return the number of depths of transparency in the shaded colour table
+     */
+    public int getDepthCount() {
+        return darken.length;
+    }
+
+    /**
+     * @return the average colour of the block face as packed ARGB or 0 if it has not been loaded yet
+     */
+    public int getColor(Block block, BlockPart blockPart) {
+        int[] colors = partTiles[blockPart.ordinal()].colors;
+        int id = block.getId();
+        return (id < colors.length) ? colors[id] : 0;
+    }
+
+    /**
+     * Loads the block face if needed. Must be called from the render thread.
+     */
+    public void ensureLoaded(Block block, BlockPart blockPart) {
+        if (getColor(block, blockPart) == 0) {
+            load(block, blockPart);
+        }
+    }
+
+    /**
+     * Loads the faces of all given blocks at once, so that the colour table is complete. Must be called from the render thread.
+     */
+    public void preload(Collection<Block> blocks, BlockPart blockPart) {
+        for (Block block : blocks) {
+            ensureLoaded(block, blockPart);
+        }
+    }
+
+    /**
+     * Returns the image of the block face, loading it if needed. Must be called from the render thread.
+     */
+    public BufferedImage loadImage(Block block, BlockPart blockPart) {
+        BufferedImage[] images = partTiles[blockPart.ordinal()].images;
+        int id = block.getId();
+        BufferedImage blockImage = (id < images.length) ? images[id] : null;
+        if (null == blockImage) {
+            load(block, blockPart);
+            blockImage = partTiles[blockPart.ordinal()].images[id];
+        }
+        return blockImage;
+    }
+
+    /**
+     * Returns the atlas of the block faces scaled to the given tile size, creating it if needed.
+     * Must be called from the render thread.
+     */
+    public ScaledTileAtlas getScaledAtlas(BlockPart blockPart, int tileSize) {
+        Map<Integer, SoftReference<ScaledTileAtlas>> atlases = scaledAtlases.get(blockPart);
+        SoftReference<ScaledTileAtlas> reference = atlases.get(tileSize);
+        ScaledTileAtlas atlas = (reference != null) ? reference.get() : null;
+        if (null == atlas) {
+            atlas = new ScaledTileAtlas(tileSize);
+            atlases.put(tileSize, new SoftReference<>(atlas));
+        }
+        return atlas;
+    }
+
+    /**
+     * Returns the slot of the block face in the given atlas, adding it if needed. Must be called from the render thread.
+     */
+    public int loadScaledTile(ScaledTileAtlas atlas, Block block, BlockPart blockPart) {
+        int slot = atlas.getSlot(block);
+        if (slot < 0) {
+            slot = atlas.addTile(block, loadImage(block, blockPart));
+        }
+        return slot;
+    }
+
+    /**
+     * @return the approximate size in bytes of all block face images and all scaled atlases that are still held
+     */
+    public long getCachedImageBytes() {
+        long bytes = 0;
+        for (PartTiles tiles : partTiles) {
+            for (BufferedImage image : tiles.images) {
+                if (null != image) {
+                    bytes += getImageBytes(image);
+                }
+            }
+        }
+        for (Map<Integer, SoftReference<ScaledTileAtlas>> atlases : scaledAtlases.values()) {
+            for (SoftReference<ScaledTileAtlas> reference : atlases.values()) {
+                ScaledTileAtlas atlas = reference.get();
+                if (null != atlas) {
+                    bytes += atlas.getImageBytes();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    static long getImageBytes(BufferedImage image) {
+        // all images here are created with 32 bit pixels
+        return 4L * image.getWidth() * image.getHeight();
+    }
+
+    private void load(Block block, BlockPart blockPart) {
+        BlockAppearance primaryAppearance = block.getPrimaryAppearance();
+        Vector2f textureAtlasPos = primaryAppearance.getTextureAtlasPos(blockPart);
+
+        Vector2f size = new Vector2f(relativeTileSize, relativeTileSize);
+        TextureRegion textureRegion = new BasicTextureRegion(textureAtlas, textureAtlasPos, size);
+        Rect2i pixelRegion = textureRegion.getPixelRegion();
+
+        int sx1 = pixelRegion.minX();
+        int sy1 = pixelRegion.minY();
+        int sx2 = sx1 + pixelRegion.width();    // Surprisingly, maxX() is not minX + width()
+        int sy2 = sy1 + pixelRegion.height();
+
+        Texture texture = textureRegion.getTexture();
+        AwtTexture awtTexture = (AwtTexture) texture;
+        BufferedImage fullImage = awtTexture.getBufferedImage(texture.getWidth(), texture.getHeight(), 1f, WHITE);
+
+        int w = pixelRegion.width();
+        int h = pixelRegion.height();
+        BufferedImage blockImage = CompatibleImages.create(w, h, Transparency.TRANSLUCENT);
+        BufferedImage tiny = CompatibleImages.create(1, 1, Transparency.TRANSLUCENT);
+
+        ImageObserver observer = null;
+
+        Graphics2D bg = (Graphics2D) blockImage.getGraphics();
+        bg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        bg.drawImage(fullImage, 0, 0, w, h, sx1, sy1, sx2, sy2, observer);
+        bg.dispose();
+
+        Graphics2D tg = (Graphics2D) tiny.getGraphics();
+        tg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        tg.drawImage(fullImage, 0, 0, 1, 1, sx1, sy1, sx2, sy2, observer);
+        tg.dispose();
+
+        // I think this is correct, but the color appears to be darker than the average color of the original image
+        int rgb = tiny.getRGB(0, 0);
+
+        PartTiles tiles = partTiles[blockPart.ordinal()];
+        int id = block.getId();
+        tiles.ensureCapacity(id + 1);
+        tiles.images[id] = blockImage;
+        tiles.colors[id] = rgb | 0xFF000000;
+        fillShadedColors(rgb, tiles.shadedLut, id * darken.length);
+    }
+
+    /**
+     * Pre-multiplies a block colour for every depth of transparency.
+     * The looks match the former way of drawing the darkened colour with the same alpha over the black background.
+     */
+    private void fillShadedColors(int rgb, int[] shadedLut, int offset) {
+        int red = (rgb >> 16) & 0xFF;
+        int green = (rgb >> 8) & 0xFF;
+        int blue = rgb & 0xFF;
+
+        for (int depth = 0; depth < darken.length; depth++) {
+            float shade = darken[depth] * darken[depth];
+            shadedLut[offset + depth] = 0xFF000000
+                    | ((int) (red * shade) << 16)
+                    | ((int) (green * shade) << 8)
+                    | (int) (blue * shade);
+        }
+    }
+
+    /**
+     * The loaded faces of all blocks for one block part.
+     */
+    private static final class PartTiles {
+        private final int depthCount;
+        private int[] colors = new int[INITIAL_CAPACITY];
+        private int[] shadedLut;
+        private BufferedImage[] images = new BufferedImage[INITIAL_CAPACITY];
+
+        PartTiles(int depthCount) {
+            this.depthCount = depthCount;
+            this.shadedLut = new int[INITIAL_CAPACITY * depthCount];
+        }
+
+        void ensureCapacity(int capacity) {
+            if (capacity > colors.length) {
+                int newCapacity = Math.max(capacity, colors.length * 2);
+                colors = Arrays.copyOf(colors, newCapacity);
+                shadedLut = Arrays.copyOf(shadedLut, newCapacity * depthCount);
+                images = Arrays.copyOf(images, newCapacity);
+            }
+        }
+    }
+}
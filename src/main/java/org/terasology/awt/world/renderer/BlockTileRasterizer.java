@@ -0,0 +1,635 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.terasology.math.geom.Vector2i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.chunks.ChunkConstants;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Draws the tiles of a {@link TileView}. The screen is split into horizontal bands that can be
+ * resolved on several threads. The bands only read the surfaces that were prepared on the render thread,
+ * so they never touch the chunks while the world generator writes to them.
+ * <p>
+ * The last frame is kept. When the view only moved within the slice, it is shifted and only
+ * the uncovered cells and the cells of changed chunks are drawn again. When it did not move at all,
+ * only the regions that were marked dirty by world changes are drawn, if any.
+ */
+public class BlockTileRasterizer {
+
+    public enum RenderMode {
+        IMAGE,
+        SQUARE,
+        POINT
+    }
+
+    private static final int BANDS_PER_THREAD = 2;
+    private static final int MAX_DIRTY_REGIONS = 256;
+    private static final int BLACK = 0xFF000000;
+
+    private final ProjectedSurfaceCache surfaceCache;
+    private final BlockTileCache tileCache;
+    private final RenderMetrics metrics;
+    private final float[] darken;
+    private final Color[] shadeOverlays;
+    private final int threadCount;
+    private final ExecutorService executor;
+
+    // Holds the last frame, so that it can be moved when the view scrolls
+    private final TileFrameBuffer frameBuffer = new TileFrameBuffer();
+    private TileView previousView;
+    private SurfaceGrid previousGrid;
+    private RenderMode previousRenderMode;
+    private BlockPart previousBlockPart;
+
+    // Cells of the previous frame that the world changed since then
+    private final List<Rectangle> dirtyRegions = Lists.newArrayList();
+    private boolean tilePassSkipped;
+
+    // The resolved cells of the current frame, used to draw the images on the render thread
+    private Block[] cellBlocks = new Block[0];
+    private byte[] cellDepths = new byte[0];
+
+    private long[] bandNanos = new long[0];
+
+    /**
+     * @param metrics the counters of the current frame, added to on the render thread
+     * @param threadCount the number of threads to resolve the bands on; 1 renders on the calling thread only
+     */
+    public BlockTileRasterizer(ProjectedSurfaceCache surfaceCache, BlockTileCache tileCache, RenderMetrics metrics, float[] darken, int threadCount) {
+        this.surfaceCache = surfaceCache;
+        this.tileCache = tileCache;
+        this.metrics = metrics;
+        this.darken = darken;
+        this.shadeOverlays = new Color[darken.length];
+        for (int depth = 0; depth < darken.length; depth++) {
+            shadeOverlays[depth] = new Color(0f, 0f, 0f, 1f - darken[depth]);
+        }
+        this.threadCount = Math.max(threadCount, 1);
+        this.executor = (this.threadCount > 1) ? new ForkJoinPool(this.threadCount) : null;
+    }
+
+    public void render(Graphics2D g, TileView view, RenderMode renderMode, BlockPart blockPart, int width, int height) {
+        update(view, renderMode, blockPart, width, height);
+
+        ImageObserver observer = null;
+        g.drawImage(frameBuffer.getImage(), 0, 0, observer);
+    }
+
+    /**
+     * Brings the frame image up to date with the view, without drawing it anywhere.
+     * @return true if the frame image changed
+     */
+    public boolean update(TileView view, RenderMode renderMode, BlockPart blockPart, int width, int height) {
+        boolean reusable = previousView != null && previousRenderMode == renderMode && previousBlockPart == blockPart
+                && frameBuffer.getWidth() == width && frameBuffer.getHeight() == height;
+        Vector2i translation = reusable ? view.getTranslationFrom(previousView) : null;
+        boolean unmoved = translation != null && translation.x == 0 && translation.y == 0;
+
+        tilePassSkipped = unmoved && dirtyRegions.isEmpty();
+        if (tilePassSkipped) {
+            return false;
+        }
+
+        long airStepsBefore = surfaceCache.getAirSteps();
+        SurfaceGrid grid = new SurfaceGrid(view);
+        metrics.add(RenderMetrics.Counter.AIR_STEPS, surfaceCache.getAirSteps() - airStepsBefore);
+
+        int blocksWide = view.getBlocksWide();
+        int blocksHigh = view.getBlocksHigh();
+        if (renderMode == RenderMode.IMAGE) {
+            int cellCount = blocksWide * blocksHigh;
+            if (cellBlocks.length < cellCount) {
+                cellBlocks = new Block[cellCount];
+                cellDepths = new byte[cellCount];
+            }
+        }
+
+        frameBuffer.ensureSize(width, height);
+
+        List<Rectangle> dirtyCells = null;
+        if (unmoved) {
+            // Only what the world events reported
+            dirtyCells = Lists.newArrayList(dirtyRegions);
+        } else if (translation != null) {
+            dirtyCells = scrollPreviousFrame(view, translation, grid, width, height);
+        }
+        dirtyRegions.clear();
+        if (dirtyCells == null) {
+            frameBuffer.clear();
+            dirtyCells = Lists.newArrayList(new Rectangle(0, 0, blocksWide, blocksHigh));
+        }
+
+        previousView = view;
+        previousGrid = grid;
+        previousRenderMode = renderMode;
+        previousBlockPart = blockPart;
+
+        if (!dirtyCells.isEmpty()) {
+            renderCells(view, grid, renderMode, blockPart, dirtyCells);
+        }
+        return true;
+    }
+
+    /**
+     * @return the image of the last frame, as drawn by {@link #render}
+     */
+    public BufferedImage getFrameImage() {
+        return frameBuffer.getImage();
+    }
+
+    /**
+     * Forgets the previous frame, so that the next frame is drawn from scratch.
+     */
+    public void invalidate() {
+        previousView = null;
+        previousGrid = null;
+        dirtyRegions.clear();
+    }
+
+    /**
+     * Marks the cell that shows the given block as changed, if the block can be seen.
+     */
+    public void markBlockDirty(Vector3i blockPos) {
+        if (previousView == null) {
+            return;
+        }
+        int depth = previousView.getDepth(blockPos.x, blockPos.y, blockPos.z);
+        if (depth >= 0 && depth < darken.length) {
+            int i = previousView.getCellI(blockPos.x, blockPos.y, blockPos.z);
+            int j = previousView.getCellJ(blockPos.x, blockPos.y, blockPos.z);
+            addDirtyRegion(new Rectangle(i, j, 1, 1));
+        }
+    }
+
+    /**
+     * Marks the cells that show the given chunk as changed, if the chunk can be seen.
+     */
+    public void markChunkDirty(Vector3i chunkPos) {
+        if (previousView == null) {
+            return;
+        }
+        int x1 = chunkPos.x * ChunkConstants.SIZE_X;
+        int y1 = chunkPos.y * ChunkConstants.SIZE_Y;
+        int z1 = chunkPos.z * ChunkConstants.SIZE_Z;
+        int x2 = x1 + ChunkConstants.SIZE_X - 1;
+        int y2 = y1 + ChunkConstants.SIZE_Y - 1;
+        int z2 = z1 + ChunkConstants.SIZE_Z - 1;
+        int depth1 = previousView.getDepth(x1, y1, z1);
+        int depth2 = previousView.getDepth(x2, y2, z2);
+        if (Math.max(depth1, depth2) >= 0 && Math.min(depth1, depth2) < darken.length) {
+            addDirtyRegion(getChunkCells(previousView, chunkPos.x, chunkPos.y, chunkPos.z));
+        }
+    }
+
+    private void addDirtyRegion(Rectangle cells) {
+        Rectangle screen = new Rectangle(0, 0, previousView.getBlocksWide(), previousView.getBlocksHigh());
+        Rectangle visibleCells = cells.intersection(screen);
+        if (visibleCells.isEmpty()) {
+            return;
+        }
+
+        for (Rectangle dirtyRegion : dirtyRegions) {
+            if (dirtyRegion.contains(visibleCells)) {
+                return;
+            }
+        }
+
+        if (dirtyRegions.size() >= MAX_DIRTY_REGIONS) {
+            // Too many to keep apart, so redraw everything that was seen
+            dirtyRegions.clear();
+            visibleCells = screen;
+        }
+        dirtyRegions.add(visibleCells);
+    }
+
+    /**
+     * @return true if the last frame was only copied from the one before, because nothing changed
+     */
+    public boolean isTilePassSkipped() {
+        return tilePassSkipped;
+    }
+
+    /**
+     * Moves the previous frame to where its cells are in the given view.
+     * @return the cells that still need to be drawn, or null if the previous frame cannot be used
+     */
+    private List<Rectangle> scrollPreviousFrame(TileView view, Vector2i translation, SurfaceGrid grid, int width, int height) {
+        // Only cells that were completely on screen can be taken over
+        int blockTileSize = view.getBlockTileSize();
+        int fullCellsWide = width / blockTileSize;
+        int fullCellsHigh = height / blockTileSize;
+        int di = translation.x;
+        int dj = translation.y;
+        if (Math.abs(di) >= fullCellsWide || Math.abs(dj) >= fullCellsHigh) {
+            return null;
+        }
+
+        frameBuffer.scroll(-di * blockTileSize, -dj * blockTileSize);
+
+        int blocksWide = view.getBlocksWide();
+        int blocksHigh = view.getBlocksHigh();
+
+        // The cells (i, j) whose old cell (i + di, j + dj) was not fully on screen, limited to the cells of the view
+        int keptMinI = Math.max(-di, 0);
+        int keptMaxI = Math.min(fullCellsWide - di, blocksWide);
+        int keptMinJ = Math.max(-dj, 0);
+        int keptMaxJ = Math.min(fullCellsHigh - dj, blocksHigh);
+        List<Rectangle> dirtyCells = Lists.newArrayList();
+        addIfNotEmpty(dirtyCells, new Rectangle(0, 0, blocksWide, keptMinJ));
+        addIfNotEmpty(dirtyCells, new Rectangle(0, keptMaxJ, blocksWide, blocksHigh - keptMaxJ));
+        addIfNotEmpty(dirtyCells, new Rectangle(0, keptMinJ, keptMinI, keptMaxJ - keptMinJ));
+        addIfNotEmpty(dirtyCells, new Rectangle(keptMaxI, keptMinJ, blocksWide - keptMaxI, keptMaxJ - keptMinJ));
+
+        // Chunks whose surface was rebuilt, loaded or unloaded since the last frame; this includes the dirty regions
+        Rectangle kept = new Rectangle(keptMinI, keptMinJ, keptMaxI - keptMinI, keptMaxJ - keptMinJ);
+        grid.addChangedCells(previousGrid, view, kept, dirtyCells);
+        return dirtyCells;
+    }
+
+    /**
+     * @return the cells that show the given chunk, ignoring the depth
+     */
+    private static Rectangle getChunkCells(TileView view, int chunkX, int chunkY, int chunkZ) {
+        int x1 = chunkX * ChunkConstants.SIZE_X;
+        int y1 = chunkY * ChunkConstants.SIZE_Y;
+        int z1 = chunkZ * ChunkConstants.SIZE_Z;
+        int x2 = x1 + ChunkConstants.SIZE_X - 1;
+        int y2 = y1 + ChunkConstants.SIZE_Y - 1;
+        int z2 = z1 + ChunkConstants.SIZE_Z - 1;
+        int i1 = view.getCellI(x1, y1, z1);
+        int i2 = view.getCellI(x2, y2, z2);
+        int j1 = view.getCellJ(x1, y1, z1);
+        int j2 = view.getCellJ(x2, y2, z2);
+        return new Rectangle(Math.min(i1, i2), Math.min(j1, j2), Math.abs(i2 - i1) + 1, Math.abs(j2 - j1) + 1);
+    }
+
+    private static void addIfNotEmpty(List<Rectangle> rectangles, Rectangle rectangle) {
+        if (!rectangle.isEmpty()) {
+            rectangles.add(rectangle);
+        }
+    }
+
+    private void renderCells(TileView view, SurfaceGrid grid, RenderMode renderMode, BlockPart blockPart, List<Rectangle> dirtyCells) {
+        int bandCount = Math.min(threadCount * BANDS_PER_THREAD, view.getBlocksHigh());
+        if (bandNanos.length != bandCount) {
+            bandNanos = new long[bandCount];
+        }
+
+        // Every dirty rectangle is shared among all bands, so that a thin strip keeps all threads busy
+        List<Band> bands = Lists.newArrayListWithCapacity(bandCount);
+        for (int band = 0; band < bandCount; band++) {
+            bands.add(new Band(band, view, grid, renderMode, blockPart));
+        }
+        for (Rectangle rect : dirtyCells) {
+            for (int band = 0; band < bandCount; band++) {
+                int rowStart = rect.y + band * rect.height / bandCount;
+                int rowEnd = rect.y + (band + 1) * rect.height / bandCount;
+                if (rowStart < rowEnd) {
+                    bands.get(band).cells.add(new Rectangle(rect.x, rowStart, rect.width, rowEnd - rowStart));
+                }
+            }
+        }
+
+        List<Band> incompleteBands = runBands(bands);
+
+        // Bands that met blocks without a known colour are done again, once the colours are loaded here
+        if (!incompleteBands.isEmpty()) {
+            for (Band band : incompleteBands) {
+                // the retry resets the counters of the band, so the lookups of the first pass are reported here
+                metrics.add(RenderMetrics.Counter.COLOR_CACHE_HITS, band.colorHits);
+                metrics.add(RenderMetrics.Counter.COLOR_CACHE_MISSES, band.colorMisses);
+                for (Block block : band.missingColors) {
+                    tileCache.ensureLoaded(block, blockPart);
+                }
+                band.missingColors.clear();
+                band.call();
+            }
+        }
+
+        for (Band band : bands) {
+            metrics.add(RenderMetrics.Counter.CELLS_RESOLVED, band.cellsResolved);
+            metrics.add(RenderMetrics.Counter.CHUNK_MISSES, band.chunkMisses);
+            metrics.add(RenderMetrics.Counter.COLOR_CACHE_HITS, band.colorHits);
+            metrics.add(RenderMetrics.Counter.COLOR_CACHE_MISSES, band.colorMisses);
+        }
+
+        if (renderMode == RenderMode.IMAGE) {
+            Graphics2D fg = frameBuffer.getImage().createGraphics();
+            drawImages(fg, view, blockPart, dirtyCells);
+            fg.dispose();
+        }
+    }
+
+    private List<Band> runBands(List<Band> bands) {
+        List<Band> incompleteBands = Lists.newArrayList();
+        if (executor == null) {
+            for (Band band : bands) {
+                if (!band.call()) {
+                    incompleteBands.add(band);
+                }
+            }
+            return incompleteBands;
+        }
+
+        try {
+            List<Future<Boolean>> results = executor.invokeAll(bands);
+            for (int i = 0; i < bands.size(); i++) {
+                if (!results.get(i).get()) {
+                    incompleteBands.add(bands.get(i));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to render tile band", e.getCause());
+        }
+        return incompleteBands;
+    }
+
+    private void drawImages(Graphics2D g, TileView view, BlockPart blockPart, List<Rectangle> dirtyCells) {
+        int blockTileSize = view.getBlockTileSize();
+        int blocksWide = view.getBlocksWide();
+
+        // Kept strongly for the frame, so that the garbage collector cannot take it while drawing
+        ScaledTileAtlas atlas = tileCache.getScaledAtlas(blockPart, blockTileSize);
+
+        for (Rectangle rect : dirtyCells) {
+            frameBuffer.clearRect(rect.x * blockTileSize, rect.y * blockTileSize, rect.width * blockTileSize, rect.height * blockTileSize);
+
+            for (int j = rect.y; j < rect.y + rect.height; j++) {
+                for (int i = rect.x; i < rect.x + rect.width; i++) {
+                    int cell = j * blocksWide + i;
+                    Block block = cellBlocks[cell];
+                    if (block != null) {
+                        int dx = i * blockTileSize;
+                        int dy = j * blockTileSize;
+                        int slot = atlas.getSlot(block);
+                        if (slot < 0) {
+                            slot = tileCache.loadScaledTile(atlas, block, blockPart);
+                            metrics.add(RenderMetrics.Counter.IMAGE_CACHE_MISSES, 1);
+                        } else {
+                            metrics.add(RenderMetrics.Counter.IMAGE_CACHE_HITS, 1);
+                        }
+                        atlas.drawTile(g, slot, dx, dy);
+
+                        // Darkening over the black background is the same as drawing the tile with less alpha
+                        int depth = cellDepths[cell] & 0xFF;
+                        if (depth > 0) {
+                            g.setColor(shadeOverlays[depth]);
+                            g.fillRect(dx, dy, blockTileSize, blockTileSize);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the time in nanoseconds that each band took in the last frame
+     */
+    public long[] getBandTimings() {
+        return bandNanos.clone();
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void dispose() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A share of the screen cells that are drawn in one frame, made of horizontal strips.
+     */
+    private final class Band implements Callable<Boolean> {
+
+        private final int index;
+        private final TileView view;
+        private final SurfaceGrid grid;
+        private final RenderMode renderMode;
+        private final BlockPart blockPart;
+
+        private final List<Rectangle> cells = Lists.newArrayList();
+        private final Set<Block> missingColors = Sets.newHashSet();
+
+        // Counted per run and added to the metrics on the render thread
+        private long cellsResolved;
+        private long chunkMisses;
+        private long colorHits;
+        private long colorMisses;
+
+        // Fetched per run, as loading missing colours may replace the table
+        private int[] shadedLut;
+        private int depthCount;
+
+        Band(int index, TileView view, SurfaceGrid grid, RenderMode renderMode, BlockPart blockPart) {
+            this.index = index;
+            this.view = view;
+            this.grid = grid;
+            this.renderMode = renderMode;
+            this.blockPart = blockPart;
+        }
+
+        /**
+         * @return false if some cells could not be drawn as the colour of their block is not loaded yet
+         */
+        @Override
+        public Boolean call() {
+            long startTime = System.nanoTime();
+
+            cellsResolved = 0;
+            chunkMisses = 0;
+            colorHits = 0;
+            colorMisses = 0;
+
+            shadedLut = tileCache.getShadedLut(blockPart);
+            depthCount = tileCache.getDepthCount();
+            for (Rectangle rect : cells) {
+                renderRect(rect);
+            }
+
+            bandNanos[index] = System.nanoTime() - startTime;
+            return missingColors.isEmpty();
+        }
+
+        private void renderRect(Rectangle rect) {
+            int blockTileSize = view.getBlockTileSize();
+            int blocksWide = view.getBlocksWide();
+            for (int j = rect.y; j < rect.y + rect.height; j++) {
+                for (int i = rect.x; i < rect.x + rect.width; i++) {
+                    int x = view.getWorldX(i, j);
+                    int y = view.getWorldY(i, j);
+                    int z = view.getWorldZ(i, j);
+
+                    Block block = null;
+                    int depth = 0;
+                    ProjectedSurfaceCache.Surface surface = grid.get(x, y, z);
+                    if (null != surface) {
+                        int index = surface.indexOf(x, y, z);
+                        block = surface.getBlock(index);
+                        depth = surface.getDepth(index);
+                    } else {
+                        chunkMisses++;
+                    }
+                    cellsResolved++;
+
+                    if (renderMode == RenderMode.IMAGE) {
+                        int cell = j * blocksWide + i;
+                        cellBlocks[cell] = block;
+                        cellDepths[cell] = (byte) depth;
+                    } else if (block == null) {
+                        // let it remain black if nothing is there
+                        frameBuffer.fillTile(i * blockTileSize, j * blockTileSize, blockTileSize, BLACK);
+                    } else {
+                        int lutIndex = block.getId() * depthCount + depth;
+                        int argb = (lutIndex < shadedLut.length) ? shadedLut[lutIndex] : 0;
+                        if (argb == 0) {
+                            missingColors.add(block);
+                            colorMisses++;
+                            continue;
+                        }
+
+                        colorHits++;
+                        if (renderMode == RenderMode.POINT) {
+                            frameBuffer.setPixel(i, j, argb);
+                        } else {
+                            frameBuffer.fillTile(i * blockTileSize, j * blockTileSize, blockTileSize, argb);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The surfaces of all chunks in view, looked up once per frame on the render thread.
+     */
+    private final class SurfaceGrid {
+
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final int sizeX;
+        private final int sizeY;
+        private final int sizeZ;
+        private final ProjectedSurfaceCache.Surface[] surfaces;
+
+        SurfaceGrid(TileView view) {
+            int lastI = view.getBlocksWide() - 1;
+            int lastJ = view.getBlocksHigh() - 1;
+            int x1 = view.getWorldX(0, 0);
+            int x2 = view.getWorldX(lastI, lastJ);
+            int y1 = view.getWorldY(0, 0);
+            int y2 = view.getWorldY(lastI, lastJ);
+            int z1 = view.getWorldZ(0, 0);
+            int z2 = view.getWorldZ(lastI, lastJ);
+
+            minX = Math.floorDiv(Math.min(x1, x2), ChunkConstants.SIZE_X);
+            minY = Math.floorDiv(Math.min(y1, y2), ChunkConstants.SIZE_Y);
+            minZ = Math.floorDiv(Math.min(z1, z2), ChunkConstants.SIZE_Z);
+            sizeX = Math.floorDiv(Math.max(x1, x2), ChunkConstants.SIZE_X) - minX + 1;
+            sizeY = Math.floorDiv(Math.max(y1, y2), ChunkConstants.SIZE_Y) - minY + 1;
+            sizeZ = Math.floorDiv(Math.max(z1, z2), ChunkConstants.SIZE_Z) - minZ + 1;
+            surfaces = new ProjectedSurfaceCache.Surface[sizeX * sizeY * sizeZ];
+
+            // The slice stays at the view center, the other two coordinates pick the chunk
+            int centerI = view.getMapCenterX();
+            int centerJ = view.getMapCenterY();
+            for (int cx = 0; cx < sizeX; cx++) {
+                for (int cy = 0; cy < sizeY; cy++) {
+                    for (int cz = 0; cz < sizeZ; cz++) {
+                        int x = (minX + cx) * ChunkConstants.SIZE_X;
+                        int y = (minY + cy) * ChunkConstants.SIZE_Y;
+                        int z = (minZ + cz) * ChunkConstants.SIZE_Z;
+                        switch (view.getAxis()) {
+                            case XZ_AXIS:
+                                y = view.getWorldY(centerI, centerJ);
+                                break;
+                            case YZ_AXIS:
+                                x = view.getWorldX(centerI, centerJ);
+                                break;
+                            case XY_AXIS:
+                                z = view.getWorldZ(centerI, centerJ);
+                                break;
+                            default:
+                                throw new RuntimeException("illegal displayAxisType " + view.getAxis());
+                        }
+                        surfaces[(cx * sizeY + cy) * sizeZ + cz] = surfaceCache.getSurface(view.getAxis(), x, y, z);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds the cells within the given area whose chunk has a different surface in the previous grid.
+         */
+        void addChangedCells(SurfaceGrid previous, TileView view, Rectangle area, List<Rectangle> dirtyCells) {
+            for (int cx = 0; cx < sizeX; cx++) {
+                for (int cy = 0; cy < sizeY; cy++) {
+                    for (int cz = 0; cz < sizeZ; cz++) {
+                        ProjectedSurfaceCache.Surface surface = surfaces[(cx * sizeY + cy) * sizeZ + cz];
+                        if (previous.getByChunk(minX + cx, minY + cy, minZ + cz) != surface) {
+                            Rectangle chunkCells = getChunkCells(view, minX + cx, minY + cy, minZ + cz);
+                            addIfNotEmpty(dirtyCells, chunkCells.intersection(area));
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return the surface of the chunk or null if the chunk is not loaded or not part of the grid
+         */
+        ProjectedSurfaceCache.Surface getByChunk(int chunkX, int chunkY, int chunkZ) {
+            int cx = chunkX - minX;
+            int cy = chunkY - minY;
+            int cz = chunkZ - minZ;
+            if (cx < 0 || cy < 0 || cz < 0 || cx >= sizeX || cy >= sizeY || cz >= sizeZ) {
+                return null;
+            }
+            return surfaces[(cx * sizeY + cy) * sizeZ + cz];
+        }
+
+        ProjectedSurfaceCache.Surface get(int x, int y, int z) {
+            return getByChunk(
+                    Math.floorDiv(x, ChunkConstants.SIZE_X),
+                    Math.floorDiv(y, ChunkConstants.SIZE_Y),
+                    Math.floorDiv(z, ChunkConstants.SIZE_Z));
+        }
+    }
+}
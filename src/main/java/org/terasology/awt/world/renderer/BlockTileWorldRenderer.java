@@ -18,25 +18,26 @@ package org.terasology.awt.world.renderer;
 import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.Composite;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.GraphicsConfiguration;
-import java.awt.GraphicsEnvironment;
-import java.awt.RenderingHints;
-import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
 import java.math.RoundingMode;
-import java.util.Map;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.context.Context;
 import org.terasology.engine.ComponentSystemManager;
 import org.terasology.engine.subsystem.DisplayDevice;
+import org.terasology.engine.subsystem.awt.AwtConfig;
 import org.terasology.engine.subsystem.awt.assets.AwtTexture;
-import org.terasology.engine.subsystem.awt.devices.AwtDisplayDevice;
+import org.terasology.engine.subsystem.awt.devices.AwtRenderTarget;
+import org.terasology.engine.subsystem.awt.devices.RenderLayer;
 import org.terasology.engine.subsystem.awt.renderer.AbstractWorldRenderer;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
@@ -46,7 +47,6 @@ import org.terasology.logic.common.DisplayNameComponent;
 import org.terasology.logic.inventory.ItemComponent;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.logic.players.LocalPlayer;
-import org.terasology.math.ChunkMath;
 import org.terasology.math.geom.Rect2f;
 import org.terasology.math.geom.Rect2i;
 import org.terasology.math.geom.Vector2f;
@@ -56,25 +56,20 @@ import org.terasology.math.geom.Vector3i;
 import org.terasology.network.Client;
 import org.terasology.network.NetworkSystem;
 import org.terasology.rendering.assets.material.Material;
-import org.terasology.rendering.assets.texture.BasicTextureRegion;
 import org.terasology.rendering.assets.texture.Texture;
 import org.terasology.rendering.assets.texture.TextureRegion;
 import org.terasology.rendering.cameras.Camera;
 import org.terasology.rendering.nui.NUIManager;
 import org.terasology.rendering.nui.layers.hud.HUDScreenLayer;
 import org.terasology.utilities.Assets;
-import org.terasology.world.WorldProvider;
 import org.terasology.world.block.Block;
-import org.terasology.world.block.BlockAppearance;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.block.BlockPart;
 import org.terasology.world.block.tiles.WorldAtlas;
-import org.terasology.world.chunks.Chunk;
-import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.selection.BlockSelectionComponent;
 
-import com.google.common.collect.Maps;
+import com.google.common.collect.Lists;
 import com.google.common.math.IntMath;
 
 public class BlockTileWorldRenderer extends AbstractWorldRenderer {
@@ -87,19 +82,21 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
 
     private Texture textureAtlas;
 
-    private Map<Block, Color> cachedColorTop = Maps.newHashMap();
-    private Map<Block, Color> cachedColorLeft = Maps.newHashMap();
-    private Map<Block, Color> cachedColorFront = Maps.newHashMap();
-
-    private Map<Block, BufferedImage> cachedImagesTop = Maps.newHashMap();
-    private Map<Block, BufferedImage> cachedImagesLeft = Maps.newHashMap();
-    private Map<Block, BufferedImage> cachedImagesFront = Maps.newHashMap();
-
     private int zoomLevel = 6;
 
-    private int depthsOfTransparency = 16;
+    private int depthsOfTransparency;
     private float[] darken;
 
+    private ProjectedSurfaceCache surfaceCache;
+    private BlockTileCache tileCache;
+    private BlockTileRasterizer rasterizer;
+
+    private final RenderMetrics metrics = new RenderMetrics();
+
+    // The colour table is filled at once when no new blocks showed up since the last frame
+    private int lastBlockFamilyCount = -1;
+    private Set<BlockPart> preloadedBlockParts = EnumSet.noneOf(BlockPart.class);
+
     // These are currently be class members so that other classes can call getWorldLocation(screenLocation)
     private int mapCenterY;
     private int mapCenterX;
@@ -108,14 +105,11 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
 
     private LocalPlayer localPlayer;
 
+    // Keeps the tiles in a world layer of the display, so that an unchanged map costs a single blit
+    private boolean cachedLayers;
+
     Context context;
 
-    private enum RenderMode {
-        IMAGE,
-        SQUARE,
-        POINT
-    }
-    
     public BlockTileWorldRenderer(Context context) {
         super(context);
 
@@ -128,6 +122,11 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
         WorldControlSystem worldControlSystem = new WorldControlSystem(this);
         componentSystemManager.register(worldControlSystem, "awt:WorldControlSystem");
         context.put(WorldControlSystem.class, worldControlSystem);
+        componentSystemManager.register(new WorldChangeSystem(this), "awt:WorldChangeSystem");
+
+        AwtConfig awtConfig = context.get(AwtConfig.class);
+        depthsOfTransparency = (null != awtConfig) ? awtConfig.getDepthsOfTransparency() : 16;
+        cachedLayers = null != awtConfig && awtConfig.isCachedLayers();
 
         darken = new float[depthsOfTransparency];
         darken[0] = 1f;
@@ -138,6 +137,8 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
 
         entityManager = context.get(EntityManager.class);
 
+        metrics.register();
+
         // Must assign here, so that we are the first HUD element assigned to the NUI HUD manager to assure
         // that we are the last consumer of mouse events
         NUIManager nuiManager = context.get(NUIManager.class);
@@ -159,7 +160,7 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
     }
 
 //    private void renderCityWorld(Camera camera, Vector3i centerBlockPosition) {
-//        AwtDisplayDevice displayDevice = (AwtDisplayDevice) context.get(DisplayDevice.class);
+//        AwtRenderTarget displayDevice = (AwtRenderTarget) context.get(DisplayDevice.class);
 //        Graphics drawGraphics = displayDevice.getDrawGraphics();
 //        drawGraphics.setColor(Color.LIGHT_GRAY);
 //        int width = displayDevice.getWidth();
@@ -192,7 +193,9 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
 
     public void renderBlockTileWorld(Camera camera, Vector3i centerBlockPosition) {
 
-        AwtDisplayDevice displayDevice = (AwtDisplayDevice) context.get(DisplayDevice.class);
+        AwtRenderTarget displayDevice = (AwtRenderTarget) context.get(DisplayDevice.class);
+        // the tiles cover the whole frame, including the black of empty cells, so it need not be cleared
+        displayDevice.markFrameCovered();
         Graphics g1 = displayDevice.getDrawGraphics();
         Graphics2D g = (Graphics2D) g1;
         int width = displayDevice.getWidth();
@@ -201,9 +204,6 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
         InputSystem inputSystem = context.get(InputSystem.class);
         Vector2i mousePosition = inputSystem.getMouseDevice().getPosition();
 
-        g.setColor(Color.BLACK);
-        g.fillRect(0, 0, width, height);
-
         int blockTileSize = getBlockTileSize();
 
         int blocksWide = IntMath.divide(width, blockTileSize, RoundingMode.CEILING);
@@ -219,201 +219,67 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
 
         chunkProvider.updateRelevanceEntity(clientEntity, chunkDistVector);
 
-        RenderMode renderMode;
+        BlockTileRasterizer.RenderMode renderMode;
         if (blockTileSize == 1) {
-            renderMode = RenderMode.POINT;
+            renderMode = BlockTileRasterizer.RenderMode.POINT;
         } else if (blockTileSize <= 4) {
-            renderMode = RenderMode.SQUARE;
+            renderMode = BlockTileRasterizer.RenderMode.SQUARE;
         } else {
-            renderMode = RenderMode.IMAGE;
+            renderMode = BlockTileRasterizer.RenderMode.IMAGE;
         }
 
         mapCenterX = (int) ((blocksWide + 0.5f) / 2f);
         mapCenterY = (int) ((blocksHigh + 0.5f) / 2f);
 
-        Vector3i behindLocationChange;
-        switch (displayAxisType) {
-            case XZ_AXIS:
-                behindLocationChange = new Vector3i(0, -1, 0);
-                break;
-            case YZ_AXIS:
-                behindLocationChange = new Vector3i(1, 0, 0);
-                break;
-            case XY_AXIS:
-                behindLocationChange = new Vector3i(0, 0, 1);
-                break;
-            default:
-                throw new RuntimeException("illegal displayAxisType " + displayAxisType);
-        }
-
         // TODO: If we base what block side we see on viewpoint, this probably needs to go inside the loop
         BlockPart blockPart;
-        Map<Block, Color> cachedColor;
-        Map<Block, BufferedImage> cachedImages;
         switch (displayAxisType) {
             case XZ_AXIS: // top down view
                 blockPart = BlockPart.TOP;
-                cachedColor = cachedColorTop;
-                cachedImages = cachedImagesTop;
                 break;
             case YZ_AXIS:
                 blockPart = BlockPart.LEFT; // todo: front/left/right/back needs to be picked base on viewpoint
-                cachedColor = cachedColorLeft;
-                cachedImages = cachedImagesLeft;
                 break;
             case XY_AXIS:
                 blockPart = BlockPart.FRONT; // todo: front/left/right/back needs to be picked base on viewpoint
-                cachedColor = cachedColorFront;
-                cachedImages = cachedImagesFront;
                 break;
             default:
                 throw new IllegalStateException("displayAxisType is invalid");
         }
 
-        //        cachedImages.clear();
-        //        cachedColor.clear();
-
-        WorldProvider worldProvider = context.get(WorldProvider.class);
-        WorldAtlas worldAtlas = context.get(WorldAtlas.class);
-        float tileSize = worldAtlas.getRelativeTileSize();
-        float prevAlpha = -1;
-
-        for (int i = 0; i < blocksWide; i++) {
-            for (int j = 0; j < blocksHigh; j++) {
-
-                int dx1 = i * blockTileSize;
-                int dy1 = j * blockTileSize;
-
-                Vector2i relativeCellLocation = new Vector2i((j - mapCenterY), (i - mapCenterX));
-
-                Vector3i relativeLocation;
-                switch (displayAxisType) {
-                    case XZ_AXIS: // top down view
-                        relativeLocation = new Vector3i(-relativeCellLocation.x, 0, relativeCellLocation.y);
-                        break;
-                    case YZ_AXIS:
-                        relativeLocation = new Vector3i(0, -relativeCellLocation.x, relativeCellLocation.y);
-                        break;
-                    case XY_AXIS:
-                        relativeLocation = new Vector3i(-relativeCellLocation.y, -relativeCellLocation.x, 0);
-                        break;
-                    default:
-                        throw new RuntimeException("displayAxisType containts invalid value");
-                }
-
-                relativeLocation.add(centerBlockPosition);
-                Block block = getBlockAtWorldPosition(worldProvider, relativeLocation);
-                if (null != block) {
-
-                    int alphaChangeCounter = 0;
-                    float alpha = 1f;
-                    BlockManager blockManager = context.get(BlockManager.class);
-                    Block airBlock = blockManager.getBlock(BlockManager.AIR_ID);
-                    while (airBlock.equals(block) && (alphaChangeCounter < (depthsOfTransparency - 1))) {
-                        alphaChangeCounter++;
-                        alpha = darken[alphaChangeCounter];
-                        relativeLocation.add(behindLocationChange);
-                        block = getBlockAtWorldPosition(worldProvider, relativeLocation);
-                    }
-
-                    // let it remain black if nothing is there
-                    if (block != null && !airBlock.equals(block)) {
-
-                        Color blockColor = null;
-                        BufferedImage blockImage = null;
-
-                        if (renderMode == RenderMode.POINT || renderMode == RenderMode.SQUARE) {
-                            blockColor = cachedColor.get(block);
-                        }
-
-                        if (renderMode == RenderMode.IMAGE || blockColor == null) {
-                            blockImage = cachedImages.get(block);
-
-                            if (null == blockImage) {
-
-                                BlockAppearance primaryAppearance = block.getPrimaryAppearance();
-                                Vector2f textureAtlasPos = primaryAppearance.getTextureAtlasPos(blockPart);
-
-                                Vector2f size = new Vector2f(tileSize, tileSize);
-                                TextureRegion textureRegion = new BasicTextureRegion(textureAtlas, textureAtlasPos, size);
-                                Rect2i pixelRegion = textureRegion.getPixelRegion();
-
-                                int sx1 = pixelRegion.minX();
-                                int sy1 = pixelRegion.minY();
-                                int sx2 = sx1 + pixelRegion.width();    // Surprisingly, maxX() is not minX + width()
-                                int sy2 = sy1 + pixelRegion.height();
-
-                                Texture texture = textureRegion.getTexture();
-                                AwtTexture awtTexture = (AwtTexture) texture;
-                                BufferedImage fullImage = awtTexture.getBufferedImage(texture.getWidth(), texture.getHeight(), 1f, WHITE);
-
-                                GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
-
-                                int w = pixelRegion.width();
-                                int h = pixelRegion.height();
-                                blockImage = gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
-                                BufferedImage tiny = gc.createCompatibleImage(1, 1, Transparency.TRANSLUCENT);
-
-                                ImageObserver observer = null;
-
-                                Graphics2D bg = (Graphics2D) blockImage.getGraphics();
-                                bg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-                                bg.drawImage(fullImage, 0, 0, w, h, sx1, sy1, sx2, sy2, observer);
-                                bg.dispose();
-
-                                cachedImages.put(block, blockImage);
-
-                                Graphics2D tg = (Graphics2D) tiny.getGraphics();
-                                tg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-                                tg.drawImage(fullImage, 0, 0, 1, 1, sx1, sy1, sx2, sy2, observer);
-                                tg.dispose();
-
-                                // I think this is correct, but the color appears to be darker than the average color of the original image
-                                blockColor = new Color(tiny.getRGB(0, 0));
-                                cachedColor.put(block, blockColor);
-                            }
-
-                        }
-
-                        if (alpha != prevAlpha) {
-                            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-                        }
-
-                        if (renderMode == RenderMode.POINT || renderMode == RenderMode.SQUARE) {
-                            int red = (int) (blockColor.getRed() * alpha);
-                            int green = (int) (blockColor.getGreen() * alpha);
-                            int blue = (int) (blockColor.getBlue() * alpha);
-                            blockColor = new Color(red, green, blue);
-
-                            g.setColor(blockColor);
-
-                            if (renderMode == RenderMode.SQUARE) {
-                                g.fillRect(dx1, dy1, blockTileSize, blockTileSize);
-                            } else {
-                                g.drawLine(dx1, dy1, dx1, dy1);
-                            }
-                        }
-                        else {
-                            ImageObserver observer = null;
-                            g.drawImage(blockImage, dx1, dy1, blockTileSize, blockTileSize, observer);
-                        }
-
-                        prevAlpha = alpha;
-                    }
-                }
-
-                if (relativeCellLocation.x == 0 && relativeCellLocation.y == 0) {
-                    g.setColor(Color.WHITE);
-                    g.setStroke(new BasicStroke(2));
-                    g.drawRect(dx1, dy1, blockTileSize, blockTileSize);
-                }
+        preloadBlockColors(blockPart);
+
+        long startTime = System.nanoTime();
+        TileView view = new TileView(displayAxisType, centerBlockPosition, blockTileSize, blocksWide, blocksHigh, mapCenterX, mapCenterY);
+        if (cachedLayers) {
+            boolean changed = getRasterizer().update(view, renderMode, blockPart, width, height);
+            RenderLayer worldLayer = displayDevice.getLayer(AwtRenderTarget.WORLD_LAYER, true);
+            if (changed || worldLayer.needsRedraw(width, height)) {
+                Graphics2D layerGraphics = worldLayer.beginDraw(width, height);
+                layerGraphics.drawImage(getRasterizer().getFrameImage(), 0, 0, null);
+                worldLayer.endDraw();
             }
+            worldLayer.drawTo(g);
+        } else {
+            getRasterizer().render(g, view, renderMode, blockPart, width, height);
         }
+        long tilePassEndTime = System.nanoTime();
+        metrics.set(RenderMetrics.Counter.TILE_PASS_NANOS, tilePassEndTime - startTime);
 
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+        // mark the center of the view
+        g.setColor(Color.WHITE);
+        g.setStroke(new BasicStroke(2));
+        g.drawRect(mapCenterX * blockTileSize, mapCenterY * blockTileSize, blockTileSize, blockTileSize);
 
         drawCharacterEntities(g, blockTileSize, centerBlockPosition);
+        long entityPassEndTime = System.nanoTime();
+        metrics.set(RenderMetrics.Counter.ENTITY_PASS_NANOS, entityPassEndTime - tilePassEndTime);
+
         drawBlockSelection(g, mousePosition);
+        metrics.set(RenderMetrics.Counter.SELECTION_PASS_NANOS, System.nanoTime() - entityPassEndTime);
+
+        metrics.set(RenderMetrics.Counter.CACHED_IMAGE_BYTES, tileCache.getCachedImageBytes());
+        metrics.endFrame();
     }
 
     public void drawCharacterEntities(Graphics2D g, int blockTileSize, Vector3i centerBlockPosition) {
@@ -483,7 +349,7 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
                             AwtTexture awtTexture = (AwtTexture) textureRegion.getTexture();
 
                             BufferedImage bufferedImage = awtTexture.getBufferedImage(
-                                    awtTexture.getWidth(), awtTexture.getHeight(), alpha, WHITE);
+                                    awtTexture.getWidth(), awtTexture.getHeight(), 1f, WHITE);
 
                             Rect2i pixelRegion = textureRegion.getPixelRegion();
 
@@ -504,7 +370,11 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
 
                             ImageObserver observer = null;
 
+                            // darkened by depth while drawing, so one image serves all depths
+                            Composite originalComposite = g.getComposite();
+                            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
                             g.drawImage(bufferedImage, destx1, desty1, destx2, desty2, sx1, sy1, sx2, sy2, observer);
+                            g.setComposite(originalComposite);
                         } else {
                             logger.info("Need to render " + displayName + ": no itemComponent.icon");
                         }
@@ -681,25 +551,84 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
         return relativeEntityWorldPosition;
     }
 
-    private Block getBlockAtWorldPosition(WorldProvider worldProvider, Vector3i worldPosition) {
-        int x = worldPosition.x;
-        int y = worldPosition.y;
-        int z = worldPosition.z;
+    private ProjectedSurfaceCache getSurfaceCache() {
+        if (null == surfaceCache) {
+            ChunkProvider chunkProvider = context.get(ChunkProvider.class);
+            BlockManager blockManager = context.get(BlockManager.class);
+            Block airBlock = blockManager.getBlock(BlockManager.AIR_ID);
+            surfaceCache = new ProjectedSurfaceCache(chunkProvider, airBlock, depthsOfTransparency);
+        }
+        return surfaceCache;
+    }
 
-        if (y >= ChunkConstants.SIZE_Y || y < 0) {
-            // Happens if you are moving around above the world
-            return null;
+    private BlockTileRasterizer getRasterizer() {
+        if (null == rasterizer) {
+            WorldAtlas worldAtlas = context.get(WorldAtlas.class);
+            tileCache = new BlockTileCache(textureAtlas, worldAtlas.getRelativeTileSize(), darken);
+            AwtConfig awtConfig = context.get(AwtConfig.class);
+            int renderThreads = (null != awtConfig) ? awtConfig.getRenderThreads() : 1;
+            rasterizer = new BlockTileRasterizer(getSurfaceCache(), tileCache, metrics, darken, renderThreads);
         }
+        return rasterizer;
+    }
 
-        Vector3i chunkPos = ChunkMath.calcChunkPos(x, y, z);
+    private void preloadBlockColors(BlockPart blockPart) {
+        BlockManager blockManager = context.get(BlockManager.class);
+        int blockFamilyCount = blockManager.getBlockFamilyCount();
+        if (blockFamilyCount != lastBlockFamilyCount) {
+            lastBlockFamilyCount = blockFamilyCount;
+            preloadedBlockParts.clear();
+        } else if (!preloadedBlockParts.contains(blockPart)) {
+            getRasterizer();
+            Block airBlock = blockManager.getBlock(BlockManager.AIR_ID);
+            List<Block> blocks = Lists.newArrayList(blockManager.listRegisteredBlocks());
+            blocks.remove(airBlock);
+            tileCache.preload(blocks, blockPart);
+            preloadedBlockParts.add(blockPart);
+        }
+    }
 
-        ChunkProvider chunkProvider = context.get(ChunkProvider.class);
-        Chunk chunk = chunkProvider.getChunk(chunkPos);
-        if (chunk != null) {
-            Vector3i blockPos = ChunkMath.calcBlockPos(x, y, z);
-            return chunk.getBlock(blockPos);
+    /**
+     * @return the time in nanoseconds that each band of the screen took to render in the last frame
+     */
+    public long[] getBandTimings() {
+        if (null == rasterizer) {
+            return new long[0];
+        }
+        return rasterizer.getBandTimings();
+    }
+
+    /**
+     * @return the counters of the last frame
+     */
+    public RenderMetrics getRenderMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String getMetrics() {
+        return metrics.format();
+    }
+
+    @Override
+    public void dispose() {
+        if (null != rasterizer) {
+            rasterizer.dispose();
+        }
+        metrics.unregister();
+        super.dispose();
+    }
+
+    /**
+     * Called by {@link WorldChangeSystem} when a block in the world was changed.
+     */
+    public void onBlockChanged(Vector3i blockPos) {
+        if (null != surfaceCache) {
+            surfaceCache.invalidateBlock(blockPos);
+        }
+        if (null != rasterizer) {
+            rasterizer.markBlockDirty(blockPos);
         }
-        return null;
     }
 
     public void toggleAxis() {
@@ -747,26 +676,33 @@ public class BlockTileWorldRenderer extends AbstractWorldRenderer {
 
 	@Override
 	public void onChunkLoaded(Vector3i chunkPos) {
-		// TODO Auto-generated method stub
-		
+        // Surfaces next to the new chunk may have been built while it was still missing
+        if (null != surfaceCache) {
+            surfaceCache.invalidateChunk(chunkPos);
+        }
+        if (null != rasterizer) {
+            rasterizer.markChunkDirty(chunkPos);
+        }
 	}
 
 	@Override
 	public void onChunkUnloaded(Vector3i chunkPos) {
-		// TODO Auto-generated method stub
-		
+        if (null != surfaceCache) {
+            surfaceCache.invalidateChunk(chunkPos);
+        }
+        if (null != rasterizer) {
+            rasterizer.markChunkDirty(chunkPos);
+        }
 	}
 
 	@Override
 	public void increaseTrianglesCount(int increase) {
-		// TODO Auto-generated method stub
-		
+        metrics.add(RenderMetrics.Counter.TRIANGLES, increase);
 	}
 
 	@Override
 	public void increaseNotReadyChunkCount(int increase) {
-		// TODO Auto-generated method stub
-		
+        metrics.add(RenderMetrics.Counter.NOT_READY_CHUNKS, increase);
 	}
 
 	@Override
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkProvider;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Caches, for each loaded chunk and each {@link DisplayAxisType}, the first visible block seen
+ * when looking through the displayed slice, along with the number of air blocks passed on the way.
+ * The renderer reads these instead of walking the chunk map for every screen cell.
+ * <p>
+ * For the top down view, the height of the highest non-air block of each column is kept as well,
+ * so that the walk through the air above the ground is skipped.
+ */
+public class ProjectedSurfaceCache {
+
+    private final ChunkProvider chunkProvider;
+    private final Block airBlock;
+    private final int depthsOfTransparency;
+
+    private final Map<DisplayAxisType, Map<Vector3i, Surface>> surfacesByAxis = new EnumMap<>(DisplayAxisType.class);
+
+    // The local y of the highest non-air block per column of a chunk, at z * SIZE_X + x, or -1 if there is none
+    private final Map<Vector3i, short[]> columnHeights = Maps.newConcurrentMap();
+
+    // Surfaces are only built on the render thread
+    private long airSteps;
+
+    /**
+     * @param chunkProvider the source of the chunk data
+     * @param airBlock the block that is treated as see-through
+     * @param depthsOfTransparency the maximum number of blocks to look through, including the first one
+     */
+    public ProjectedSurfaceCache(ChunkProvider chunkProvider, Block airBlock, int depthsOfTransparency) {
+        this.chunkProvider = chunkProvider;
+        this.airBlock = airBlock;
+        this.depthsOfTransparency = depthsOfTransparency;
+
+        for (DisplayAxisType axis : DisplayAxisType.values()) {
+            surfacesByAxis.put(axis, Maps.newConcurrentMap());
+        }
+    }
+
+    /**
+     * Returns the surface of the chunk that contains the given world position, projected along the given axis.
+     * The coordinate of the position along the view direction is the slice the surface is computed for.
+     * @return the surface or null if the chunk is not loaded
+     */
+    public Surface getSurface(DisplayAxisType axis, int x, int y, int z) {
+        if (y >= ChunkConstants.SIZE_Y || y < 0) {
+            // Happens if you are moving around above the world
+            return null;
+        }
+
+        Vector3i chunkPos = new Vector3i(
+                Math.floorDiv(x, ChunkConstants.SIZE_X),
+                Math.floorDiv(y, ChunkConstants.SIZE_Y),
+                Math.floorDiv(z, ChunkConstants.SIZE_Z));
+        int slice = getSlice(axis, x, y, z);
+
+        Map<Vector3i, Surface> surfaces = surfacesByAxis.get(axis);
+        Surface surface = surfaces.get(chunkPos);
+        if (surface == null || surface.slice != slice) {
+            Chunk chunk = chunkProvider.getChunk(chunkPos);
+            if (chunk == null || !chunk.isReady()) {
+                return null;
+            }
+            surface = buildSurface(axis, chunk, chunkPos, slice);
+            surfaces.put(chunkPos, surface);
+        }
+        return surface;
+    }
+
+    /**
+     * Drops all surfaces that could see the given block.
+     */
+    public void invalidateBlock(Vector3i worldPos) {
+        updateColumnHeight(worldPos);
+
+        for (DisplayAxisType axis : DisplayAxisType.values()) {
+            Vector3i behind = getBehindLocationChange(axis);
+            Map<Vector3i, Surface> surfaces = surfacesByAxis.get(axis);
+            for (int depth = 0; depth < depthsOfTransparency; depth++) {
+                surfaces.remove(new Vector3i(
+                        Math.floorDiv(worldPos.x - behind.x * depth, ChunkConstants.SIZE_X),
+                        Math.floorDiv(worldPos.y - behind.y * depth, ChunkConstants.SIZE_Y),
+                        Math.floorDiv(worldPos.z - behind.z * depth, ChunkConstants.SIZE_Z)));
+            }
+        }
+    }
+
+    /**
+     * Drops the surfaces of the given chunk and of all chunks whose view reaches into it.
+     */
+    public void invalidateChunk(Vector3i chunkPos) {
+        columnHeights.remove(chunkPos);
+
+        for (DisplayAxisType axis : DisplayAxisType.values()) {
+            Vector3i behind = getBehindLocationChange(axis);
+            Map<Vector3i, Surface> surfaces = surfacesByAxis.get(axis);
+            int reach = (depthsOfTransparency - 1 + ChunkConstants.SIZE_X - 1) / ChunkConstants.SIZE_X;
+            for (int i = 0; i <= reach; i++) {
+                surfaces.remove(new Vector3i(chunkPos.x - behind.x * i, chunkPos.y - behind.y * i, chunkPos.z - behind.z * i));
+            }
+        }
+    }
+
+    public void clear() {
+        for (Map<Vector3i, Surface> surfaces : surfacesByAxis.values()) {
+            surfaces.clear();
+        }
+        columnHeights.clear();
+    }
+
+    public int getDepthsOfTransparency() {
+        return depthsOfTransparency;
+    }
+
+    /**
+     * @return the number of air blocks walked through while building surfaces, since this cache was created
+     */
+    public long getAirSteps() {
+        return airSteps;
+    }
+
+    /**
+     * @return the direction in which the view looks through the slice
+     */
+    public static Vector3i getBehindLocationChange(DisplayAxisType axis) {
+        switch (axis) {
+            case XZ_AXIS:
+                return new Vector3i(0, -1, 0);
+            case YZ_AXIS:
+                return new Vector3i(1, 0, 0);
+            case XY_AXIS:
+                return new Vector3i(0, 0, 1);
+            default:
+                throw new RuntimeException("illegal displayAxisType " + axis);
+        }
+    }
+
+    private static int getSlice(DisplayAxisType axis, int x, int y, int z) {
+        switch (axis) {
+            case XZ_AXIS:
+                return y;
+            case YZ_AXIS:
+                return x;
+            case XY_AXIS:
+                return z;
+            default:
+                throw new RuntimeException("illegal displayAxisType " + axis);
+        }
+    }
+
+    private Surface buildSurface(DisplayAxisType axis, Chunk chunk, Vector3i chunkPos, int slice) {
+        Vector3i behind = getBehindLocationChange(axis);
+        Surface surface = new Surface(axis, chunkPos, slice);
+        ChunkLookup lookup = new ChunkLookup(chunk, chunkPos);
+        Vector3i worldPos = new Vector3i();
+        short[] heights = (axis == DisplayAxisType.XZ_AXIS) ? getColumnHeights(chunk, chunkPos) : null;
+
+        for (int v = 0; v < surface.height; v++) {
+            for (int u = 0; u < surface.width; u++) {
+                surface.toWorldPosition(u, v, worldPos);
+                int index = v * surface.width + u;
+
+                if (heights != null) {
+                    // In the top down view u and v are the local x and z of the column
+                    int top = heights[v * ChunkConstants.SIZE_X + u];
+                    int depth = worldPos.y - (chunkPos.y * ChunkConstants.SIZE_Y + top);
+                    if (top >= 0 && depth > 0) {
+                        // nothing but air between the slice and the ground
+                        if (depth < depthsOfTransparency) {
+                            surface.blocks[index] = chunk.getBlock(u, top, v);
+                            surface.depths[index] = (byte) depth;
+                        }
+                        continue;
+                    }
+                }
+
+                Block block = lookup.getBlock(worldPos);
+                int depth = 0;
+                while (airBlock.equals(block) && depth < depthsOfTransparency - 1) {
+                    depth++;
+                    worldPos.add(behind);
+                    block = lookup.getBlock(worldPos);
+                }
+                airSteps += depth;
+
+                // let it remain empty if nothing is there
+                if (block != null && !airBlock.equals(block)) {
+                    surface.blocks[index] = block;
+                    surface.depths[index] = (byte) depth;
+                }
+            }
+        }
+        return surface;
+    }
+
+    private short[] getColumnHeights(Chunk chunk, Vector3i chunkPos) {
+        short[] heights = columnHeights.get(chunkPos);
+        if (heights == null) {
+            heights = new short[ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z];
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                    heights[z * ChunkConstants.SIZE_X + x] = findColumnHeight(chunk, x, z);
+                }
+            }
+            columnHeights.put(chunkPos, heights);
+        }
+        return heights;
+    }
+
+    private void updateColumnHeight(Vector3i worldPos) {
+        Vector3i chunkPos = new Vector3i(
+                Math.floorDiv(worldPos.x, ChunkConstants.SIZE_X),
+                Math.floorDiv(worldPos.y, ChunkConstants.SIZE_Y),
+                Math.floorDiv(worldPos.z, ChunkConstants.SIZE_Z));
+        short[] heights = columnHeights.get(chunkPos);
+        if (heights != null) {
+            Chunk chunk = chunkProvider.getChunk(chunkPos);
+            if (chunk == null) {
+                columnHeights.remove(chunkPos);
+            } else {
+                int x = worldPos.x - chunkPos.x * ChunkConstants.SIZE_X;
+                int z = worldPos.z - chunkPos.z * ChunkConstants.SIZE_Z;
+                heights[z * ChunkConstants.SIZE_X + x] = findColumnHeight(chunk, x, z);
+            }
+        }
+    }
+
+    private short findColumnHeight(Chunk chunk, int x, int z) {
+        for (int y = ChunkConstants.SIZE_Y - 1; y >= 0; y--) {
+            Block block = chunk.getBlock(x, y, z);
+            if (block != null && !airBlock.equals(block)) {
+                return (short) y;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Resolves blocks, remembering the last chunk as the walk rarely leaves it.
+     */
+    private final class ChunkLookup {
+        private Chunk chunk;
+        private Vector3i chunkPos;
+
+        ChunkLookup(Chunk chunk, Vector3i chunkPos) {
+            this.chunk = chunk;
+            this.chunkPos = chunkPos;
+        }
+
+        Block getBlock(Vector3i worldPos) {
+            if (worldPos.y >= ChunkConstants.SIZE_Y || worldPos.y < 0) {
+                return null;
+            }
+
+            int cx = Math.floorDiv(worldPos.x, ChunkConstants.SIZE_X);
+            int cy = Math.floorDiv(worldPos.y, ChunkConstants.SIZE_Y);
+            int cz = Math.floorDiv(worldPos.z, ChunkConstants.SIZE_Z);
+            if (cx != chunkPos.x || cy != chunkPos.y || cz != chunkPos.z) {
+                chunkPos = new Vector3i(cx, cy, cz);
+                chunk = chunkProvider.getChunk(chunkPos);
+            }
+            if (chunk == null) {
+                return null;
+            }
+            return chunk.getBlock(
+                    worldPos.x - cx * ChunkConstants.SIZE_X,
+                    worldPos.y - cy * ChunkConstants.SIZE_Y,
+                    worldPos.z - cz * ChunkConstants.SIZE_Z);
+        }
+    }
+
+    /**
+     * The projection of one chunk along one axis. Cells without a visible block hold null.
+     */
+    public static final class Surface {
+
+        private final DisplayAxisType axis;
+        private final Vector3i chunkPos;
+        private final int slice;
+        private final int width;
+        private final int height;
+        private final Block[] blocks;
+        private final byte[] depths;
+
+        Surface(DisplayAxisType axis, Vector3i chunkPos, int slice) {
+            this.axis = axis;
+            this.chunkPos = chunkPos;
+            this.slice = slice;
+            switch (axis) {
+                case XZ_AXIS:
+                    width = ChunkConstants.SIZE_X;
+                    height = ChunkConstants.SIZE_Z;
+                    break;
+                case YZ_AXIS:
+                    width = ChunkConstants.SIZE_Y;
+                    height = ChunkConstants.SIZE_Z;
+                    break;
+                case XY_AXIS:
+                    width = ChunkConstants.SIZE_X;
+                    height = ChunkConstants.SIZE_Y;
+                    break;
+                default:
+                    throw new RuntimeException("illegal displayAxisType " + axis);
+            }
+            this.blocks = new Block[width * height];
+            this.depths = new byte[width * height];
+        }
+
+        /**
+         * @return true if the given world position is shown by this surface
+         */
+        public boolean contains(int x, int y, int z) {
+            return Math.floorDiv(x, ChunkConstants.SIZE_X) == chunkPos.x
+                   && Math.floorDiv(y, ChunkConstants.SIZE_Y) == chunkPos.y
+                   && Math.floorDiv(z, ChunkConstants.SIZE_Z) == chunkPos.z
+                   && getSlice(axis, x, y, z) == slice;
+        }
+
+        /**
+         * @return the index of the cell that shows the given world position
+         */
+        public int indexOf(int x, int y, int z) {
+            switch (axis) {
+                case XZ_AXIS:
+                    return (z - chunkPos.z * ChunkConstants.SIZE_Z) * width + (x - chunkPos.x * ChunkConstants.SIZE_X);
+                case YZ_AXIS:
+                    return (z - chunkPos.z * ChunkConstants.SIZE_Z) * width + (y - chunkPos.y * ChunkConstants.SIZE_Y);
+                case XY_AXIS:
+                    return (y - chunkPos.y * ChunkConstants.SIZE_Y) * width + (x - chunkPos.x * ChunkConstants.SIZE_X);
+                default:
+                    throw new RuntimeException("illegal displayAxisType " + axis);
+            }
+        }
+
+        public Block getBlock(int index) {
+            return blocks[index];
+        }
+
+        /**
+         * @return the number of air blocks in front of the visible block
+         */
+        public int getDepth(int index) {
+            return depths[index] & 0xFF;
+        }
+
+        public Vector3i getChunkPos() {
+            return chunkPos;
+        }
+
+        void toWorldPosition(int u, int v, Vector3i worldPos) {
+            switch (axis) {
+                case XZ_AXIS:
+                    worldPos.set(chunkPos.x * ChunkConstants.SIZE_X + u, slice, chunkPos.z * ChunkConstants.SIZE_Z + v);
+                    break;
+                case YZ_AXIS:
+                    worldPos.set(slice, chunkPos.y * ChunkConstants.SIZE_Y + u, chunkPos.z * ChunkConstants.SIZE_Z + v);
+                    break;
+                case XY_AXIS:
+                    worldPos.set(chunkPos.x * ChunkConstants.SIZE_X + u, chunkPos.y * ChunkConstants.SIZE_Y + v, slice);
+                    break;
+                default:
+                    throw new RuntimeException("illegal displayAxisType " + axis);
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.subsystem.awt.assets.AwtTexture;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * Counts what the world renderer did in a frame. The counters are added up on the render thread
+ * and published at the end of each frame, where the debug overlay and JMX read them.
+ */
+public class RenderMetrics implements RenderMetricsMBean {
+
+    public static final String OBJECT_NAME = "org.terasology.awt:type=RenderMetrics";
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderMetrics.class);
+
+    public enum Counter {
+        TILE_PASS_NANOS,
+        ENTITY_PASS_NANOS,
+        SELECTION_PASS_NANOS,
+        CELLS_RESOLVED,
+        AIR_STEPS,
+        CHUNK_MISSES,
+        COLOR_CACHE_HITS,
+        COLOR_CACHE_MISSES,
+        IMAGE_CACHE_HITS,
+        IMAGE_CACHE_MISSES,
+        CACHED_IMAGE_BYTES,
+        TRIANGLES,
+        NOT_READY_CHUNKS
+    }
+
+    // The frame being drawn, only touched by the render thread
+    private final long[] currentFrame = new long[Counter.values().length];
+
+    private volatile long[] lastFrame = new long[Counter.values().length];
+    private volatile long frameCount;
+
+    private ObjectName registeredName;
+
+    public void add(Counter counter, long amount) {
+        currentFrame[counter.ordinal()] += amount;
+    }
+
+    public void set(Counter counter, long value) {
+        currentFrame[counter.ordinal()] = value;
+    }
+
+    /**
+     * Publishes the counters of the current frame and starts the next one.
+     */
+    public void endFrame() {
+        lastFrame = currentFrame.clone();
+        Arrays.fill(currentFrame, 0);
+        frameCount++;
+    }
+
+    /**
+     * @return the value of the counter in the last completed frame
+     */
+    public long get(Counter counter) {
+        return lastFrame[counter.ordinal()];
+    }
+
+    /**
+     * Makes the metrics visible through the platform MBean server, replacing those of an earlier renderer.
+     */
+    public void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            registeredName = name;
+        } catch (JMException e) {
+            logger.warn("Could not register the render metrics with JMX", e);
+        }
+    }
+
+    public void unregister() {
+        if (null == registeredName) {
+            return;
+        }
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(registeredName);
+        } catch (JMException e) {
+            logger.warn("Could not unregister the render metrics from JMX", e);
+        }
+        registeredName = null;
+    }
+
+    /**
+     * @return the values of the last frame as lines of text for the debug overlay
+     */
+    public String format() {
+        long[] frame = lastFrame;
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Frame time: tiles %.2f ms, entities %.2f ms, selection %.2f ms%n",
+                toMillis(frame[Counter.TILE_PASS_NANOS.ordinal()]),
+                toMillis(frame[Counter.ENTITY_PASS_NANOS.ordinal()]),
+                toMillis(frame[Counter.SELECTION_PASS_NANOS.ordinal()])));
+        builder.append(String.format("Cells resolved: %d, air steps: %d, chunk misses: %d%n",
+                frame[Counter.CELLS_RESOLVED.ordinal()],
+                frame[Counter.AIR_STEPS.ordinal()],
+                frame[Counter.CHUNK_MISSES.ordinal()]));
+        builder.append(String.format("Colour cache: %d hits, %d misses; image cache: %d hits, %d misses%n",
+                frame[Counter.COLOR_CACHE_HITS.ordinal()], frame[Counter.COLOR_CACHE_MISSES.ordinal()],
+                frame[Counter.IMAGE_CACHE_HITS.ordinal()], frame[Counter.IMAGE_CACHE_MISSES.ordinal()]));
+        builder.append(String.format("Cached images: %d KiB%n", frame[Counter.CACHED_IMAGE_BYTES.ordinal()] / 1024));
+        CacheStats textureStats = AwtTexture.getImageCacheStats();
+        builder.append(String.format("Texture images: %d cached, %d hits, %d misses, %d evictions in total%n",
+                AwtTexture.getImageCacheSize(), textureStats.hitCount(), textureStats.missCount(), textureStats.evictionCount()));
+        builder.append(String.format("Triangles: %d, chunks not ready: %d",
+                frame[Counter.TRIANGLES.ordinal()],
+                frame[Counter.NOT_READY_CHUNKS.ordinal()]));
+        return builder.toString();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public long getTilePassNanos() {
+        return get(Counter.TILE_PASS_NANOS);
+    }
+
+    @Override
+    public long getEntityPassNanos() {
+        return get(Counter.ENTITY_PASS_NANOS);
+    }
+
+    @Override
+    public long getSelectionPassNanos() {
+        return get(Counter.SELECTION_PASS_NANOS);
+    }
+
+    @Override
+    public long getCellsResolved() {
+        return get(Counter.CELLS_RESOLVED);
+    }
+
+    @Override
+    public long getAirSteps() {
+        return get(Counter.AIR_STEPS);
+    }
+
+    @Override
+    public long getChunkMisses() {
+        return get(Counter.CHUNK_MISSES);
+    }
+
+    @Override
+    public long getColorCacheHits() {
+        return get(Counter.COLOR_CACHE_HITS);
+    }
+
+    @Override
+    public long getColorCacheMisses() {
+        return get(Counter.COLOR_CACHE_MISSES);
+    }
+
+    @Override
+    public long getImageCacheHits() {
+        return get(Counter.IMAGE_CACHE_HITS);
+    }
+
+    @Override
+    public long getImageCacheMisses() {
+        return get(Counter.IMAGE_CACHE_MISSES);
+    }
+
+    @Override
+    public long getCachedImageBytes() {
+        return get(Counter.CACHED_IMAGE_BYTES);
+    }
+
+    @Override
+    public long getTextureCacheHits() {
+        return AwtTexture.getImageCacheStats().hitCount();
+    }
+
+    @Override
+    public long getTextureCacheMisses() {
+        return AwtTexture.getImageCacheStats().missCount();
+    }
+
+    @Override
+    public long getTextureCacheEvictions() {
+        return AwtTexture.getImageCacheStats().evictionCount();
+    }
+
+    @Override
+    public long getTriangles() {
+        return get(Counter.TRIANGLES);
+    }
+
+    @Override
+    public long getNotReadyChunks() {
+        return get(Counter.NOT_READY_CHUNKS);
+    }
+}
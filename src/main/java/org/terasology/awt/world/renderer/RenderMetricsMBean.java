@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+/**
+ * The JMX view of the {@link RenderMetrics}. All values are those of the last completed frame,
+ * except for the texture cache counts, which add up since the cache was created.
+ */
+public interface RenderMetricsMBean {
+
+    long getFrameCount();
+
+    long getTilePassNanos();
+
+    long getEntityPassNanos();
+
+    long getSelectionPassNanos();
+
+    long getCellsResolved();
+
+    long getAirSteps();
+
+    long getChunkMisses();
+
+    long getColorCacheHits();
+
+    long getColorCacheMisses();
+
+    long getImageCacheHits();
+
+    long getImageCacheMisses();
+
+    long getCachedImageBytes();
+
+    long getTextureCacheHits();
+
+    long getTextureCacheMisses();
+
+    long getTextureCacheEvictions();
+
+    long getTriangles();
+
+    long getNotReadyChunks();
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.util.Arrays;
+
+import org.terasology.engine.subsystem.awt.renderer.CompatibleImages;
+import org.terasology.world.block.Block;
+
+/**
+ * One image that holds the faces of many blocks, already scaled to the size of a tile at one zoom level.
+ * Drawing a tile is then a blit of a part of the image without any scaling.
+ * Tiles are added when a block is first drawn at this size.
+ */
+public class ScaledTileAtlas {
+
+    private static final int COLUMNS = 16;
+    private static final int INITIAL_ROWS = 4;
+
+    private final int tileSize;
+    // Indexed by block id, -1 for blocks without a tile
+    private int[] slots = new int[0];
+    private int slotCount;
+    private BufferedImage image;
+
+    public ScaledTileAtlas(int tileSize) {
+        this.tileSize = tileSize;
+        this.image = createImage(INITIAL_ROWS);
+    }
+
+    /**
+     * @return the slot of the block or -1 if it has not been added yet
+     */
+    public int getSlot(Block block) {
+        int id = block.getId();
+        return (id < slots.length) ? slots[id] : -1;
+    }
+
+    /**
+     * Scales the given face image into a new slot.
+     * @return the slot of the block
+     */
+    public int addTile(Block block, BufferedImage faceImage) {
+        int slot = slotCount;
+        int rows = image.getHeight() / tileSize;
+        if (slot >= rows * COLUMNS) {
+            grow(rows * 2);
+        }
+
+        Graphics2D g = image.createGraphics();
+        // the textures are drawn with nearest neighbour filtering everywhere else
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        ImageObserver observer = null;
+        g.drawImage(faceImage, getSlotX(slot), getSlotY(slot), tileSize, tileSize, observer);
+        g.dispose();
+
+        int id = block.getId();
+        if (id >= slots.length) {
+            int oldLength = slots.length;
+            slots = Arrays.copyOf(slots, Math.max(id + 1, oldLength * 2));
+            Arrays.fill(slots, oldLength, slots.length, -1);
+        }
+        slots[id] = slot;
+        slotCount++;
+        return slot;
+    }
+
+    /**
+     * Draws the tile of the given slot with its upper left corner at the given position.
+     */
+    public void drawTile(Graphics2D g, int slot, int dx, int dy) {
+        int sx = getSlotX(slot);
+        int sy = getSlotY(slot);
+        ImageObserver observer = null;
+        g.drawImage(image, dx, dy, dx + tileSize, dy + tileSize, sx, sy, sx + tileSize, sy + tileSize, observer);
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return the approximate size of the atlas image in bytes
+     */
+    public long getImageBytes() {
+        return BlockTileCache.getImageBytes(image);
+    }
+
+    private int getSlotX(int slot) {
+        return (slot % COLUMNS) * tileSize;
+    }
+
+    private int getSlotY(int slot) {
+        return (slot / COLUMNS) * tileSize;
+    }
+
+    private void grow(int rows) {
+        BufferedImage grownImage = createImage(rows);
+        Graphics2D g = grownImage.createGraphics();
+        ImageObserver observer = null;
+        g.drawImage(image, 0, 0, observer);
+        g.dispose();
+        image = grownImage;
+    }
+
+    private BufferedImage createImage(int rows) {
+        return CompatibleImages.create(COLUMNS * tileSize, rows * tileSize, Transparency.TRANSLUCENT);
+    }
+}
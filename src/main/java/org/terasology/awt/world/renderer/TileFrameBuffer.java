@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * A screen-sized image whose pixels are written directly as packed RGB values.
+ * Tiles are rasterized into the backing int[] and the whole image is blitted once per frame.
+ */
+public class TileFrameBuffer {
+
+    private static final int BLACK = 0xFF000000;
+
+    private BufferedImage image;
+    private int[] pixels;
+    private int width;
+    private int height;
+
+    /**
+     * Makes sure the buffer matches the given size. The content is undefined if the buffer was resized.
+     */
+    public void ensureSize(int newWidth, int newHeight) {
+        if (image == null || newWidth != width || newHeight != height) {
+            width = Math.max(newWidth, 1);
+            height = Math.max(newHeight, 1);
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(pixels, BLACK);
+    }
+
+    public void setPixel(int x, int y, int rgb) {
+        if (x >= 0 && y >= 0 && x < width && y < height) {
+            pixels[y * width + x] = rgb;
+        }
+    }
+
+    /**
+     * Fills a square of the given size, clipped to the buffer.
+     */
+    public void fillTile(int x, int y, int size, int rgb) {
+        fillRect(x, y, size, size, rgb);
+    }
+
+    /**
+     * Fills a rectangle, clipped to the buffer.
+     */
+    public void fillRect(int x, int y, int w, int h, int rgb) {
+        int minX = Math.max(x, 0);
+        int minY = Math.max(y, 0);
+        int maxX = Math.min(x + w, width);
+        int maxY = Math.min(y + h, height);
+        if (minX >= maxX) {
+            return;
+        }
+        for (int row = minY; row < maxY; row++) {
+            int offset = row * width;
+            Arrays.fill(pixels, offset + minX, offset + maxX, rgb);
+        }
+    }
+
+    public void clearRect(int x, int y, int w, int h) {
+        fillRect(x, y, w, h, BLACK);
+    }
+
+    /**
+     * Moves the content by the given number of pixels, like {@link java.awt.Graphics#copyArea}.
+     * The area that is uncovered keeps its old content.
+     */
+    public void scroll(int dx, int dy) {
+        int rowLength = width - Math.abs(dx);
+        if (rowLength <= 0 || Math.abs(dy) >= height) {
+            return;
+        }
+
+        int srcX = Math.max(-dx, 0);
+        int dstX = Math.max(dx, 0);
+        if (dy > 0) {
+            // move rows downwards, starting at the bottom so that no row is overwritten before it is copied
+            for (int row = height - 1; row >= dy; row--) {
+                System.arraycopy(pixels, (row - dy) * width + srcX, pixels, row * width + dstX, rowLength);
+            }
+        } else {
+            for (int row = 0; row < height + dy; row++) {
+                System.arraycopy(pixels, (row - dy) * width + srcX, pixels, row * width + dstX, rowLength);
+            }
+        }
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
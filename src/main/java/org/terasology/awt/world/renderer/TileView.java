@@ -0,0 +1,189 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import org.terasology.math.geom.Vector2i;
+import org.terasology.math.geom.Vector3i;
+
+/**
+ * Describes which part of the world is shown on which screen cell for one frame.
+ * Cell (i, j) is drawn at pixel (i * blockTileSize, j * blockTileSize).
+ */
+public final class TileView {
+
+    private final DisplayAxisType axis;
+    private final int centerX;
+    private final int centerY;
+    private final int centerZ;
+    private final int blockTileSize;
+    private final int blocksWide;
+    private final int blocksHigh;
+    private final int mapCenterX;
+    private final int mapCenterY;
+
+    public TileView(DisplayAxisType axis, Vector3i centerBlockPosition, int blockTileSize,
+                    int blocksWide, int blocksHigh, int mapCenterX, int mapCenterY) {
+        this.axis = axis;
+        this.centerX = centerBlockPosition.x;
+        this.centerY = centerBlockPosition.y;
+        this.centerZ = centerBlockPosition.z;
+        this.blockTileSize = blockTileSize;
+        this.blocksWide = blocksWide;
+        this.blocksHigh = blocksHigh;
+        this.mapCenterX = mapCenterX;
+        this.mapCenterY = mapCenterY;
+    }
+
+    public int getWorldX(int i, int j) {
+        switch (axis) {
+            case XZ_AXIS: // top down view
+                return centerX - (j - mapCenterY);
+            case YZ_AXIS:
+                return centerX;
+            case XY_AXIS:
+                return centerX - (i - mapCenterX);
+            default:
+                throw new RuntimeException("displayAxisType containts invalid value");
+        }
+    }
+
+    public int getWorldY(int i, int j) {
+        switch (axis) {
+            case XZ_AXIS: // top down view
+                return centerY;
+            case YZ_AXIS:
+            case XY_AXIS:
+                return centerY - (j - mapCenterY);
+            default:
+                throw new RuntimeException("displayAxisType containts invalid value");
+        }
+    }
+
+    public int getWorldZ(int i, int j) {
+        switch (axis) {
+            case XZ_AXIS: // top down view
+            case YZ_AXIS:
+                return centerZ + (i - mapCenterX);
+            case XY_AXIS:
+                return centerZ;
+            default:
+                throw new RuntimeException("displayAxisType containts invalid value");
+        }
+    }
+
+    /**
+     * @return the column of the cell that shows the given world position, ignoring the depth
+     */
+    public int getCellI(int x, int y, int z) {
+        switch (axis) {
+            case XZ_AXIS: // top down view
+            case YZ_AXIS:
+                return mapCenterX + z - centerZ;
+            case XY_AXIS:
+                return mapCenterX + centerX - x;
+            default:
+                throw new RuntimeException("displayAxisType containts invalid value");
+        }
+    }
+
+    /**
+     * @return the row of the cell that shows the given world position, ignoring the depth
+     */
+    public int getCellJ(int x, int y, int z) {
+        switch (axis) {
+            case XZ_AXIS: // top down view
+                return mapCenterY + centerX - x;
+            case YZ_AXIS:
+            case XY_AXIS:
+                return mapCenterY + centerY - y;
+            default:
+                throw new RuntimeException("displayAxisType containts invalid value");
+        }
+    }
+
+    /**
+     * @return how many blocks the given world position lies behind the slice; negative if it is in front of it
+     */
+    public int getDepth(int x, int y, int z) {
+        switch (axis) {
+            case XZ_AXIS: // top down view
+                return centerY - y;
+            case YZ_AXIS:
+                return x - centerX;
+            case XY_AXIS:
+                return z - centerZ;
+            default:
+                throw new RuntimeException("displayAxisType containts invalid value");
+        }
+    }
+
+    /**
+     * Compares this view to the one of an earlier frame.
+     * @return the offset (di, dj) so that cell (i, j) of this view shows what cell (i + di, j + dj) of the previous view showed,
+     * or null if the views differ by more than a move within the slice
+     */
+    public Vector2i getTranslationFrom(TileView previous) {
+        if (previous.axis != axis || previous.blockTileSize != blockTileSize
+                || previous.blocksWide != blocksWide || previous.blocksHigh != blocksHigh
+                || previous.mapCenterX != mapCenterX || previous.mapCenterY != mapCenterY) {
+            return null;
+        }
+
+        switch (axis) {
+            case XZ_AXIS: // top down view
+                if (previous.centerY != centerY) {
+                    return null;
+                }
+                return new Vector2i(centerZ - previous.centerZ, previous.centerX - centerX);
+            case YZ_AXIS:
+                if (previous.centerX != centerX) {
+                    return null;
+                }
+                return new Vector2i(centerZ - previous.centerZ, previous.centerY - centerY);
+            case XY_AXIS:
+                if (previous.centerZ != centerZ) {
+                    return null;
+                }
+                return new Vector2i(previous.centerX - centerX, previous.centerY - centerY);
+            default:
+                throw new RuntimeException("displayAxisType containts invalid value");
+        }
+    }
+
+    public DisplayAxisType getAxis() {
+        return axis;
+    }
+
+    public int getBlockTileSize() {
+        return blockTileSize;
+    }
+
+    public int getBlocksWide() {
+        return blocksWide;
+    }
+
+    public int getBlocksHigh() {
+        return blocksHigh;
+    }
+
+    public int getMapCenterX() {
+        return mapCenterX;
+    }
+
+    public int getMapCenterY() {
+        return mapCenterY;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.awt.world.renderer;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.world.OnChangedBlock;
+import org.terasology.world.WorldComponent;
+import org.terasology.world.block.BlockComponent;
+import org.terasology.world.chunks.event.BeforeChunkUnload;
+import org.terasology.world.chunks.event.OnChunkLoaded;
+
+/**
+ * Forwards changes of the world to the renderer, so that it can keep its caches up to date
+ * and only redraw the parts of the screen that changed.
+ */
+public class WorldChangeSystem extends BaseComponentSystem {
+
+    private BlockTileWorldRenderer renderer;
+
+    public WorldChangeSystem(BlockTileWorldRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    @ReceiveEvent(components = {BlockComponent.class})
+    public void onBlockChanged(OnChangedBlock event, EntityRef blockEntity) {
+        renderer.onBlockChanged(event.getBlockPosition());
+    }
+
+    @ReceiveEvent(components = {WorldComponent.class})
+    public void onChunkLoaded(OnChunkLoaded event, EntityRef worldEntity) {
+        renderer.onChunkLoaded(event.getChunkPos());
+    }
+
+    @ReceiveEvent(components = {WorldComponent.class})
+    public void onChunkUnload(BeforeChunkUnload event, EntityRef worldEntity) {
+        renderer.onChunkUnloaded(event.getChunkPos());
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.terasology.engine;
 
+import java.awt.GraphicsEnvironment;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -23,6 +24,7 @@ import javax.swing.JOptionPane;
 import org.terasology.engine.modes.StateMainMenu;
 import org.terasology.engine.modes.StateSetupQuickStart;
 import org.terasology.engine.paths.PathManager;
+import org.terasology.engine.subsystem.awt.AwtConfig;
 import org.terasology.engine.subsystem.awt.AwtGraphics;
 import org.terasology.engine.subsystem.common.hibernation.HibernationSubsystem;
 import org.terasology.engine.subsystem.config.BindsSubsystem;
@@ -38,6 +40,14 @@ import org.terasology.engine.subsystem.headless.HeadlessTimer;
 public final class TerasologyAwt {
     private static final String HOME_ARG = "-homedir=";
     private static final String LOCAL_ARG = "-homedir";
+    private static final String RENDER_THREADS_ARG = "-renderThreads=";
+    private static final String DEPTHS_OF_TRANSPARENCY_ARG = "-depthsOfTransparency=";
+    private static final String HEADLESS_ARG = "-headless";
+    private static final String TEXTURE_CACHE_ARG = "-textureCacheMegabytes=";
+    private static final String GLYPH_ATLAS_TEXT_ARG = "-glyphAtlasText";
+    private static final String TARGET_FPS_ARG = "-targetFps=";
+    private static final String BUFFERS_ARG = "-buffers=";
+    private static final String CACHED_LAYERS_ARG = "-cachedLayers";
 
     private TerasologyAwt() {
     }
@@ -45,13 +55,34 @@ public final class TerasologyAwt {
     public static void main(String[] args) {
         try {
             Path homePath = null;
+            AwtConfig awtConfig = new AwtConfig();
             for (String arg : args) {
                 if (arg.startsWith(HOME_ARG)) {
                     homePath = Paths.get(arg.substring(HOME_ARG.length()));
                 } else if (arg.equals(LOCAL_ARG)) {
                     homePath = Paths.get("");
+                } else if (arg.startsWith(RENDER_THREADS_ARG)) {
+                    awtConfig.setRenderThreads(Integer.parseInt(arg.substring(RENDER_THREADS_ARG.length())));
+                } else if (arg.startsWith(DEPTHS_OF_TRANSPARENCY_ARG)) {
+                    awtConfig.setDepthsOfTransparency(Integer.parseInt(arg.substring(DEPTHS_OF_TRANSPARENCY_ARG.length())));
+                } else if (arg.equals(HEADLESS_ARG)) {
+                    awtConfig.setHeadless(true);
+                } else if (arg.startsWith(TEXTURE_CACHE_ARG)) {
+                    awtConfig.setTextureCacheMegabytes(Integer.parseInt(arg.substring(TEXTURE_CACHE_ARG.length())));
+                } else if (arg.equals(GLYPH_ATLAS_TEXT_ARG)) {
+                    awtConfig.setGlyphAtlasText(true);
+                } else if (arg.startsWith(TARGET_FPS_ARG)) {
+                    awtConfig.setTargetFps(Integer.parseInt(arg.substring(TARGET_FPS_ARG.length())));
+                } else if (arg.startsWith(BUFFERS_ARG)) {
+                    awtConfig.setBufferCount(Integer.parseInt(arg.substring(BUFFERS_ARG.length())));
+                } else if (arg.equals(CACHED_LAYERS_ARG)) {
+                    awtConfig.setCachedLayers(true);
                 }
             }
+            if (awtConfig.isHeadless()) {
+                // has to be set before AWT is touched for the first time
+                System.setProperty("java.awt.headless", "true");
+            }
             if (homePath != null) {
                 PathManager.getInstance().useOverrideHomePath(homePath);
             } else {
@@ -62,20 +93,22 @@ public final class TerasologyAwt {
             boolean quickstart = true;
             
             TerasologyEngineBuilder builder = new TerasologyEngineBuilder();
-            populateSubsystems(builder);
+            populateSubsystems(builder, awtConfig);
             TerasologyEngine engine = builder.build();
             engine.addToClassesOnClasspathsToAddToEngine(TerasologyAwt.class);
             engine.run(quickstart ? new StateSetupQuickStart() : new StateMainMenu());
         } catch (Throwable t) {
             String text = getNestedMessageText(t);
-            JOptionPane.showMessageDialog(null, text, "Fatal Error", JOptionPane.ERROR_MESSAGE);
+            if (!GraphicsEnvironment.isHeadless()) {
+                JOptionPane.showMessageDialog(null, text, "Fatal Error", JOptionPane.ERROR_MESSAGE);
+            }
             t.printStackTrace(System.err);
         }
         System.exit(0);
     }
 
-    private static void populateSubsystems(TerasologyEngineBuilder builder) {
-        builder.add(new AwtGraphics())
+    private static void populateSubsystems(TerasologyEngineBuilder builder, AwtConfig awtConfig) {
+        builder.add(new AwtGraphics(awtConfig))
                 .add(new HeadlessTimer())
                 .add(new HeadlessAudio())
                 .add(new BindsSubsystem())
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt;
+
+/**
+ * Settings of the AWT facade, usually taken from the command line.
+ */
+public class AwtConfig {
+
+    public static final int MAX_DEPTHS_OF_TRANSPARENCY = 255;
+
+    private int renderThreads = 1;
+    private int depthsOfTransparency = 16;
+    private boolean headless;
+    private int textureCacheMegabytes = 128;
+    private boolean glyphAtlasText;
+    private int targetFps = 60;
+    private int bufferCount;
+    private boolean cachedLayers;
+
+    /**
+     * @return the number of threads that render the world tiles
+     */
+    public int getRenderThreads() {
+        return renderThreads;
+    }
+
+    public void setRenderThreads(int renderThreads) {
+        this.renderThreads = Math.max(renderThreads, 1);
+    }
+
+    /**
+     * @return the number of blocks the world view looks through, including the first one
+     */
+    public int getDepthsOfTransparency() {
+        return depthsOfTransparency;
+    }
+
+    public void setDepthsOfTransparency(int depthsOfTransparency) {
+        this.depthsOfTransparency = Math.max(1, Math.min(depthsOfTransparency, MAX_DEPTHS_OF_TRANSPARENCY));
+    }
+
+    /**
+     * @return true if frames are drawn into an offscreen image instead of a window
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
+    /**
+     * @return the maximum size of the converted texture images that are kept, in megabytes
+     */
+    public int getTextureCacheMegabytes() {
+        return textureCacheMegabytes;
+    }
+
+    public void setTextureCacheMegabytes(int textureCacheMegabytes) {
+        this.textureCacheMegabytes = Math.max(textureCacheMegabytes, 1);
+    }
+
+    /**
+     * @return true if text is drawn from rasterised glyphs instead of as text layouts
+     */
+    public boolean isGlyphAtlasText() {
+        return glyphAtlasText;
+    }
+
+    public void setGlyphAtlasText(boolean glyphAtlasText) {
+        this.glyphAtlasText = glyphAtlasText;
+    }
+
+    /**
+     * @return the frames per second the window is held to, 0 if frames are shown as fast as they are drawn
+     */
+    public int getTargetFps() {
+        return targetFps;
+    }
+
+    public void setTargetFps(int targetFps) {
+        this.targetFps = Math.max(targetFps, 0);
+    }
+
+    /**
+     * @return the number of buffers of the window, 2 or 3, or 0 to use 3 where the screen can flip pages
+     */
+    public int getBufferCount() {
+        return bufferCount;
+    }
+
+    public void setBufferCount(int bufferCount) {
+        this.bufferCount = (bufferCount <= 0) ? 0 : Math.max(2, Math.min(bufferCount, 3));
+    }
+
+    /**
+     * @return true if the world and the UI are kept in layers that are only drawn again when they changed
+     */
+    public boolean isCachedLayers() {
+        return cachedLayers;
+    }
+
+    public void setCachedLayers(boolean cachedLayers) {
+        this.cachedLayers = cachedLayers;
+    }
+}
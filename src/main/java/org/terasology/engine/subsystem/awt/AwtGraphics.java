@@ -15,9 +15,12 @@
  */
 package org.terasology.engine.subsystem.awt;
 
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
+import java.awt.ImageCapabilities;
 import java.awt.image.BufferedImage;
 
 import javax.imageio.ImageIO;
@@ -27,6 +30,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.assets.AssetFactory;
 import org.terasology.assets.module.ModuleAwareAssetTypeManager;
+import org.terasology.config.Config;
+import org.terasology.config.RenderingConfig;
 import org.terasology.context.Context;
 import org.terasology.engine.ComponentSystemManager;
 import org.terasology.engine.modes.GameState;
@@ -39,6 +44,8 @@ import org.terasology.engine.subsystem.awt.assets.AwtTexture;
 import org.terasology.engine.subsystem.awt.devices.AwtDisplayDevice;
 import org.terasology.engine.subsystem.awt.devices.AwtKeyboardDevice;
 import org.terasology.engine.subsystem.awt.devices.AwtMouseDevice;
+import org.terasology.engine.subsystem.awt.devices.AwtOffscreenDisplayDevice;
+import org.terasology.engine.subsystem.awt.devices.AwtRenderTarget;
 import org.terasology.engine.subsystem.awt.renderer.AwtCanvasRenderer;
 import org.terasology.engine.subsystem.awt.renderer.AwtRenderingSubsystemFactory;
 import org.terasology.engine.subsystem.config.BindsManager;
@@ -46,6 +53,8 @@ import org.terasology.engine.subsystem.headless.assets.HeadlessMesh;
 import org.terasology.engine.subsystem.headless.assets.HeadlessShader;
 import org.terasology.engine.subsystem.headless.assets.HeadlessSkeletalMesh;
 import org.terasology.input.InputSystem;
+import org.terasology.input.device.nulldevices.NullKeyboardDevice;
+import org.terasology.input.device.nulldevices.NullMouseDevice;
 import org.terasology.logic.players.DebugControlSystem;
 import org.terasology.logic.players.MenuControlSystem;
 import org.terasology.rendering.assets.animation.MeshAnimation;
@@ -78,9 +87,19 @@ public class AwtGraphics implements EngineSubsystem {
 
     private static final Logger log = LoggerFactory.getLogger(AwtGraphics.class);
     
+    private final AwtConfig awtConfig;
+
     private JFrame mainFrame;
     private AwtMouseDevice awtMouseDevice;
 
+    public AwtGraphics() {
+        this(new AwtConfig());
+    }
+
+    public AwtGraphics(AwtConfig awtConfig) {
+        this.awtConfig = awtConfig;
+    }
+
     @Override
     public void preInitialise(Context rootContext) {
     }
@@ -99,8 +118,42 @@ public class AwtGraphics implements EngineSubsystem {
 //
 //        assetManager.addAssetSource(sourceFacade);
 
+        rootContext.put(AwtConfig.class, awtConfig);
+        AwtTexture.setImageCacheSize(awtConfig.getTextureCacheMegabytes() * 1024L * 1024L);
         rootContext.put(RenderingSubsystemFactory.class, new AwtRenderingSubsystemFactory());
 
+        AwtRenderTarget renderTarget;
+        InputSystem inputSystem = new InputSystem();
+        rootContext.put(InputSystem.class, inputSystem);
+
+        if (awtConfig.isHeadless()) {
+            Config config = rootContext.get(Config.class);
+            RenderingConfig rc = config.getRendering();
+            AwtOffscreenDisplayDevice offscreenDisplay = new AwtOffscreenDisplayDevice(rc.getWindowWidth(), rc.getWindowHeight());
+            rootContext.put(DisplayDevice.class, offscreenDisplay);
+            renderTarget = offscreenDisplay;
+
+            inputSystem.setMouseDevice(new NullMouseDevice());
+            inputSystem.setKeyboardDevice(new NullKeyboardDevice());
+        } else {
+            renderTarget = createMainFrame(rootContext, inputSystem);
+        }
+
+        AwtCanvasRenderer canvasRenderer = new AwtCanvasRenderer(renderTarget, rootContext);
+        rootContext.put(CanvasRenderer.class, canvasRenderer);
+
+        // CoreRegistry.putPermanently(DefaultRenderingProcess.class, new AwtRenderingProcess());
+
+        updateInputConfig(rootContext);
+
+        // Input system must be initialized first
+        NUIManagerInternal nuiManager = new NUIManagerInternal(canvasRenderer, rootContext);
+        rootContext.put(NUIManager.class, nuiManager);
+
+
+    }
+
+    private AwtDisplayDevice createMainFrame(Context rootContext, InputSystem inputSystem) {
         GraphicsEnvironment env = GraphicsEnvironment.getLocalGraphicsEnvironment();
         GraphicsDevice device = env.getDefaultScreenDevice();
 
@@ -136,30 +189,37 @@ public class AwtGraphics implements EngineSubsystem {
 
         // Frame has to be visible by the time we set a buffer strategy, which seems really stupid
         mainFrame.setVisible(true);
-        mainFrame.createBufferStrategy(2);
-
-        AwtCanvasRenderer canvasRenderer = new AwtCanvasRenderer(mainFrame, awtDisplay, rootContext);
-        rootContext.put(CanvasRenderer.class, canvasRenderer);
-
-        // CoreRegistry.putPermanently(DefaultRenderingProcess.class, new AwtRenderingProcess());
+        createBufferStrategy(mainFrame, awtConfig.getBufferCount());
 
         // Input
-        InputSystem inputSystem = new InputSystem();
-        rootContext.put(InputSystem.class, inputSystem);
-
         awtMouseDevice = new AwtMouseDevice(mainFrame);
         inputSystem.setMouseDevice(awtMouseDevice);
 
         AwtKeyboardDevice awtKeyboardDevice = new AwtKeyboardDevice(mainFrame);
         inputSystem.setKeyboardDevice(awtKeyboardDevice);
 
-        updateInputConfig(rootContext);
-
-        // Input system must be initialized first
-        NUIManagerInternal nuiManager = new NUIManagerInternal(canvasRenderer, rootContext);
-        rootContext.put(NUIManager.class, nuiManager);
-
+        return awtDisplay;
+    }
 
+    /**
+     * Creates page flipping buffers in video memory where the screen supports them,
+     * and lets AWT pick the best it can otherwise.
+     * @param bufferCount 2 or 3, or 0 for 3 with page flipping and 2 without
+     */
+    private void createBufferStrategy(JFrame frame, int bufferCount) {
+        BufferCapabilities screenCapabilities = frame.getGraphicsConfiguration().getBufferCapabilities();
+        boolean pageFlipping = screenCapabilities.isPageFlipping();
+        int buffers = (bufferCount > 0) ? bufferCount : (pageFlipping ? 3 : 2);
+
+        ImageCapabilities accelerated = new ImageCapabilities(true);
+        BufferCapabilities.FlipContents flipContents = pageFlipping ? BufferCapabilities.FlipContents.UNDEFINED : null;
+        try {
+            frame.createBufferStrategy(buffers, new BufferCapabilities(accelerated, accelerated, flipContents));
+        } catch (AWTException e) {
+            log.info("Accelerated buffers are not available, falling back to the default buffer strategy", e);
+            frame.createBufferStrategy(buffers);
+        }
+        log.info("Drawing with {} buffers, page flipping: {}", buffers, frame.getBufferStrategy().getCapabilities().isPageFlipping());
     }
 
     private void updateInputConfig(Context context) {
@@ -174,13 +234,19 @@ public class AwtGraphics implements EngineSubsystem {
 
     @Override
     public void postUpdate(GameState currentState, float delta) {
-        awtMouseDevice.update(delta);
+        if (null != awtMouseDevice) {
+            awtMouseDevice.update(delta);
+        }
         currentState.render();
         currentState.handleInput(delta);
     }
 
     @Override
     public void shutdown() {
+        if (null == mainFrame) {
+            return;
+        }
+
         GraphicsEnvironment env = GraphicsEnvironment.getLocalGraphicsEnvironment();
         GraphicsDevice device = env.getDefaultScreenDevice();
         device.setFullScreenWindow(null);
@@ -18,7 +18,6 @@ package org.terasology.engine.subsystem.awt.assets;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
-import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.List;
 
@@ -33,8 +32,16 @@ import org.terasology.rendering.assets.font.FontData;
 public class AwtFont extends org.terasology.rendering.assets.font.Font {
     private static final Logger logger = LoggerFactory.getLogger(AwtFont.class);
 
+    private static final int ADVANCE_TABLE_SIZE = 256;
+
     protected FontData data;
 
+    private Font awtFont;
+    private FontMetrics fontMetrics;
+    private final int[] advances = new int[ADVANCE_TABLE_SIZE];
+    private int lineHeight;
+    private int boundsHeight;
+
     public AwtFont(ResourceUrn urn, AssetType<?, FontData> assetType, FontData data) {
         super(urn, assetType);
         reload(data);
@@ -43,6 +50,19 @@ public class AwtFont extends org.terasology.rendering.assets.font.Font {
     @Override
     protected void doReload(FontData fontData) {
         this.data = fontData;
+
+        awtFont = resolveAwtFont(getUrn().toString());
+
+        BufferedImage graphicsProvider = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = graphicsProvider.createGraphics();
+        fontMetrics = g2.getFontMetrics(awtFont);
+        lineHeight = fontMetrics.getHeight();
+        boundsHeight = (int) fontMetrics.getStringBounds("", g2).getHeight();
+        g2.dispose();
+
+        for (char c = 0; c < ADVANCE_TABLE_SIZE; c++) {
+            advances[c] = fontMetrics.charWidth(c);
+        }
     }
 
     @Override
@@ -57,101 +77,89 @@ public class AwtFont extends org.terasology.rendering.assets.font.Font {
 
     @Override
     public Vector2i getSize(List<String> lines) {
-        BufferedImage graphicsProvider = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = graphicsProvider.createGraphics();
-        g2.setFont(getAwtFont());
-        FontMetrics fontMetrics = g2.getFontMetrics();
-
         int height = 0;
         int width = 0;
         for (String line : lines) {
-            Rectangle2D stringBounds = fontMetrics.getStringBounds(line, g2);
-            width = Math.max(width, (int) stringBounds.getWidth());
-            height += stringBounds.getHeight();
+            width = Math.max(width, getAdvance(line, 0, line.length()));
+            height += boundsHeight;
         }
-        g2.dispose();
         return new Vector2i(width, height);
     }
 
     @Override
     public int getWidth(String text) {
-        BufferedImage graphicsProvider = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = graphicsProvider.createGraphics();
-        g2.setFont(getAwtFont());
-        FontMetrics fontMetrics = g2.getFontMetrics();
-
         int largestWidth = 0;
-        String[] pieces = text.split("\n");
-        for (String string : pieces) {
-            Rectangle2D stringBounds = fontMetrics.getStringBounds(string, g2);
-            int currentWidth = (int) stringBounds.getWidth();
-            largestWidth = Math.max(largestWidth, currentWidth);
+        int lineStart = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == '\n') {
+                largestWidth = Math.max(largestWidth, getAdvance(text, lineStart, i));
+                lineStart = i + 1;
+            }
         }
-        g2.dispose();
         return largestWidth;
     }
 
     @Override
     public int getWidth(Character c) {
-        BufferedImage graphicsProvider = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = graphicsProvider.createGraphics();
-        g2.setFont(getAwtFont());
-        FontMetrics fontMetrics = g2.getFontMetrics();
-
-        int width = 0;
-        if (c != null) {
-            Rectangle2D stringBounds = fontMetrics.getStringBounds(Character.valueOf(c).toString(), g2);
-            width = (int) stringBounds.getWidth();
+        if (c == null) {
+            return 0;
         }
-        g2.dispose();
-        return width;
+        return getAdvance(c);
     }
 
     @Override
     public int getHeight(String text) {
-        BufferedImage graphicsProvider = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = graphicsProvider.createGraphics();
-        g2.setFont(getAwtFont());
-        FontMetrics fontMetrics = g2.getFontMetrics();
-
-        int height = fontMetrics.getHeight();
-        for (char c : text.toCharArray()) {
-            if (c == '\n') {
-                height += fontMetrics.getHeight();
+        int height = lineHeight;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                height += lineHeight;
             }
         }
-        g2.dispose();
         return height;
     }
 
     @Override
     public int getLineHeight() {
-        BufferedImage graphicsProvider = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = graphicsProvider.createGraphics();
-        g2.setFont(getAwtFont());
-        FontMetrics fontMetrics = g2.getFontMetrics();
+        return lineHeight;
+    }
 
-        int height = fontMetrics.getHeight();
-        g2.dispose();
+    /**
+     * @return the font that this font is drawn with, resolved when the font data was loaded
+     */
+    public Font getAwtFont() {
+        return awtFont;
+    }
 
-        return height;
+    private int getAdvance(char c) {
+        if (c < ADVANCE_TABLE_SIZE) {
+            return advances[c];
+        }
+        return fontMetrics.charWidth(c);
     }
 
-    public Font getAwtFont() {
-        if (getUrn().toString().equals("engine:default")) {
+    private int getAdvance(String text, int start, int end) {
+        int advance = 0;
+        for (int i = start; i < end; i++) {
+            advance += getAdvance(text.charAt(i));
+        }
+        return advance;
+    }
+
+    private static Font resolveAwtFont(String urn) {
+        if (urn.equals("engine:default")) {
             return new java.awt.Font("DialogInput", java.awt.Font.BOLD, 14);
-        } else if (getUrn().toString().equals("engine:title")) {
+        } else if (urn.equals("engine:title")) {
             return new java.awt.Font("DialogInput", java.awt.Font.BOLD, 20);
-        } else if (getUrn().toString().equals("engine:NotoSans-Regular")) {
+        } else if (urn.equals("engine:NotoSans-Regular")) {
             return new java.awt.Font("DialogInput", java.awt.Font.PLAIN, 20);
-        } else if (getUrn().toString().equals("engine:NotoSans-Regular-Medium")) {
+        } else if (urn.equals("engine:NotoSans-Regular-Medium")) {
             return new java.awt.Font("DialogInput", java.awt.Font.PLAIN, 36);
-        } else if (getUrn().toString().equals("engine:NotoSans-Regular-Large")) {
+        } else if (urn.equals("engine:NotoSans-Regular-Large")) {
             return new java.awt.Font("DialogInput", java.awt.Font.PLAIN, 52);
-        } else if (getUrn().toString().equals("engine:NotoSans-Bold")) {
+        } else if (urn.equals("engine:NotoSans-Bold")) {
             return new java.awt.Font("DialogInput", java.awt.Font.BOLD, 20);
         } else {
-            logger.warn("font '" + getUrn().toString() + "' was not defined.");
+            logger.warn("font '" + urn + "' was not defined.");
         }
 
         return new java.awt.Font("DialogInput", java.awt.Font.BOLD, 14);
@@ -15,26 +15,23 @@
  */
 package org.terasology.engine.subsystem.awt.assets;
 
+import java.awt.AlphaComposite;
 import java.awt.Graphics2D;
-import java.awt.GraphicsConfiguration;
-import java.awt.GraphicsEnvironment;
 import java.awt.Transparency;
 import java.awt.image.BufferedImage;
-import java.awt.image.DataBuffer;
-import java.awt.image.DirectColorModel;
-import java.awt.image.SampleModel;
-import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
 import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import org.terasology.assets.AssetType;
 import org.terasology.assets.ResourceUrn;
-import org.terasology.math.Border;
+import org.terasology.engine.subsystem.awt.renderer.CompatibleImages;
 import org.terasology.math.geom.Rect2f;
 import org.terasology.math.geom.Rect2i;
 import org.terasology.math.geom.Vector2i;
@@ -42,13 +39,25 @@ import org.terasology.rendering.assets.texture.Texture;
 import org.terasology.rendering.assets.texture.TextureData;
 import org.terasology.rendering.nui.Color;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
 public class AwtTexture extends Texture {
 
+    public static final long DEFAULT_IMAGE_CACHE_BYTES = 128L * 1024 * 1024;
+
+    // Alpha values are rounded to this many steps, so that nearly equal fades share one image
+    private static final int ALPHA_STEPS = 64;
+
     private static int idCounter;
 
+    // The converted images of all textures, bounded by their total size and evicted least recently used first.
+    // Guava evicts by recency only within each segment, and drops entries larger than a segment right away,
+    // so the cache has a single segment for a large texture atlas to fit in.
+    private static volatile Cache<ImageCacheKey, BufferedImage> imageCache = createImageCache(DEFAULT_IMAGE_CACHE_BYTES);
+
     private final TextureResources resources;
 
     public AwtTexture(ResourceUrn urn, AssetType<?, TextureData> assetType, TextureData data) {
@@ -64,6 +73,46 @@ public class AwtTexture extends Texture {
         resources.id = id;
     }
 
+    /**
+     * Replaces the cache of converted images by an empty one of the given size.
+     * @param maximumBytes the approximate maximum size of all cached images together
+     */
+    public static void setImageCacheSize(long maximumBytes) {
+        Cache<ImageCacheKey, BufferedImage> oldCache = imageCache;
+        imageCache = createImageCache(maximumBytes);
+        oldCache.invalidateAll();
+    }
+
+    /**
+     * @return the hit, miss and eviction counts of the cache of converted images since it was created
+     */
+    public static CacheStats getImageCacheStats() {
+        return imageCache.stats();
+    }
+
+    /**
+     * @return the number of images in the cache of converted images
+     */
+    public static long getImageCacheSize() {
+        return imageCache.size();
+    }
+
+    /**
+     * Rounds the alpha to one of a limited number of steps.
+     */
+    public static float quantizeAlpha(float alpha) {
+        return Math.round(alpha * ALPHA_STEPS) / (float) ALPHA_STEPS;
+    }
+
+    private static Cache<ImageCacheKey, BufferedImage> createImageCache(long maximumBytes) {
+        return CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(maximumBytes)
+                .weigher((ImageCacheKey key, BufferedImage image) -> 4 * image.getWidth() * image.getHeight())
+                .recordStats()
+                .build();
+    }
+
     @Override
     protected void doReload(TextureData data) {
         resources.id = idCounter++;
@@ -188,9 +237,6 @@ public class AwtTexture extends Texture {
         private volatile int id;
         private volatile LoadedTextureInfo loadedTextureInfo;
 
-        private final Map<BufferedImageCacheKey, BufferedImage> bufferedImageByParametersMap = new HashMap<BufferedImageCacheKey, BufferedImage>();
-        private final Map<BufferedImageCacheKey, BufferedImage> cachedBorderedTextures = Maps.newHashMap();
-
         private final List<Runnable> disposalSubscribers = Lists.newArrayList();
 
         TextureResources() {
@@ -203,51 +249,131 @@ public class AwtTexture extends Texture {
                 disposalSubscribers.forEach(java.lang.Runnable::run);
                 loadedTextureInfo = null;
                 id = 0;
-                
-                bufferedImageByParametersMap.clear();
-                cachedBorderedTextures.clear();
+
+                imageCache.asMap().keySet().removeIf(key -> key.owner == this);
 
             }
         }
     }
 
 
-    public synchronized BufferedImage getBufferedImage(int width, int height, float alpha, Color color) {
+    /**
+     * Returns the texture converted to a compatible image with the given alpha and colour applied.
+     * The alpha is quantized, see {@link #quantizeAlpha(float)}.
+     * Safe to call from any thread; only one thread converts a given variant while the others wait for it.
+     */
+    public BufferedImage getBufferedImage(int width, int height, float alpha, Color color) {
         BufferedImageCacheKey key = new BufferedImageCacheKey(width, height, alpha, color);
+        return getCachedImage(new ImageCacheKey(resources, ImageKind.CONVERTED, key), () -> convert(width, height, key.alpha, color));
+    }
 
-        BufferedImage bufferedImage = resources.bufferedImageByParametersMap.get(key);
+    /**
+     * Returns a part of the texture with its red, green and blue multiplied by those of the colour.
+     * The alpha of the colour is ignored, it is meant to be applied while drawing.
+     * Only the region is kept, so a tinted icon costs as much memory as the icon and not as the whole atlas.
+     * Safe to call from any thread.
+     */
+    public BufferedImage getTintedRegion(Rect2i region, Color color) {
+        Color tint = new Color(color.rgba() | 0xFF);
+        BufferedImageCacheKey key = new BufferedImageCacheKey(region, tint);
+        return getCachedImage(new ImageCacheKey(resources, ImageKind.TINTED_REGION, key), () -> tintRegion(region, tint));
+    }
+
+    private static BufferedImage getCachedImage(ImageCacheKey cacheKey, Callable<BufferedImage> loader) {
+        // Reads of cached images take no lock, loading only blocks other threads asking for the same key
+        try {
+            return imageCache.get(cacheKey, loader);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to create texture image", e.getCause());
+        }
+    }
+
+    private BufferedImage convert(int width, int height, float alpha, Color color) {
+        LoadedTextureInfo loadedTextureInfo = resources.loadedTextureInfo;
+        if (null == loadedTextureInfo) {
+            throw new IllegalStateException("Texture " + getUrn() + " is disposed");
+        }
+
+        // read straight from the loaded data, getData() would copy all of it first
+        ByteBuffer byteBuffer = loadedTextureInfo.getTextureData().getBuffers()[0];
+        int[] pixels = new int[width * height];
+        byteBuffer.asIntBuffer().get(pixels);
+        convertPixels(pixels, alpha, color);
+
+        BufferedImage bufferedImage = createArgbImage(pixels, width, height);
+        return createCompatibleImage(bufferedImage);
+    }
+
+    private BufferedImage tintRegion(Rect2i region, Color tint) {
+        BufferedImage image = getBufferedImage(getWidth(), getHeight(), 1f, Color.WHITE);
+
+        // parts of the region outside of the texture stay transparent
+        BufferedImage regionImage = new BufferedImage(region.width(), region.height(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = regionImage.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, -region.minX(), -region.minY(), null);
+        g.dispose();
+
+        int[] pixels = ((DataBufferInt) regionImage.getRaster().getDataBuffer()).getData();
+        tintPixels(pixels, tint);
+        return createCompatibleImage(regionImage);
+    }
 
-        if (null == bufferedImage) {
-            ByteBuffer[] buffers = getData().getBuffers();
-            ByteBuffer byteBuffer = buffers[0];
+    /**
+     * Multiplies the colour channels of ARGB pixels in place by those of the colour, with 8.8 fixed point factors.
+     */
+    static void tintPixels(int[] pixels, Color tint) {
+        int redFactor = Math.round(tint.rf() * 256);
+        int greenFactor = Math.round(tint.gf() * 256);
+        int blueFactor = Math.round(tint.bf() * 256);
+
+        for (int i = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            int r = (((argb >>> 16) & 0xFF) * redFactor) >> 8;
+            int g = (((argb >>> 8) & 0xFF) * greenFactor) >> 8;
+            int b = ((argb & 0xFF) * blueFactor) >> 8;
+            pixels[i] = (argb & 0xFF000000) | (r << 16) | (g << 8) | b;
+        }
+    }
 
-            final IntBuffer buf = byteBuffer.asIntBuffer();
-            DataBuffer dataBuffer;
-            if (!color.equals(Color.WHITE)) {
-                dataBuffer = new IntBufferBackedDataBufferAlphaAndColor(buf, alpha, color);
-            } else if (alpha != 1f) {
-                dataBuffer = new IntBufferBackedDataBufferAlphaOnly(buf, alpha);
-            } else {
-                dataBuffer = new IntBufferBackedDataBufferUnmodified(buf);
+    /**
+     * Converts RGBA pixels, as they are loaded from PNG files, into ARGB pixels in place,
+     * multiplying the colour channels by the given colour and the alpha channel by the alpha and the colour alpha.
+     * The factors are 8.8 fixed point numbers, so that the loop is plain integer arithmetic the JIT can unroll and vectorise.
+     */
+    static void convertPixels(int[] pixels, float alpha, Color color) {
+        int redFactor = Math.round(color.rf() * 256);
+        int greenFactor = Math.round(color.gf() * 256);
+        int blueFactor = Math.round(color.bf() * 256);
+        int alphaFactor = Math.round(alpha * color.af() * 256);
+
+        if (redFactor == 256 && greenFactor == 256 && blueFactor == 256 && alphaFactor == 256) {
+            // nothing to multiply, only move the alpha to the top
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] = Integer.rotateRight(pixels[i], 8);
             }
-            SampleModel sm = new SinglePixelPackedSampleModel(
-                    DataBuffer.TYPE_INT,
-                    width,
-                    height,
-                    new int[]{0xFF000000, 0xFF0000, 0xFF00, 0xFF});
-            // WritableRaster raster = Raster.createWritableRaster(sm, dataBuffer, null);
-            WritableRaster raster = new WritableRaster(sm, dataBuffer, new java.awt.Point()) {
-            };
-            bufferedImage = new BufferedImage(
-                    new DirectColorModel(32, 0xFF000000, 0xFF0000, 0xFF00, 0xFF),
-                    raster, false, null);
-
-            BufferedImage compatibleBufferedImage = createCompatibleImage(bufferedImage);
-
-            resources.bufferedImageByParametersMap.put(key, compatibleBufferedImage);
+            return;
         }
 
-        return bufferedImage;
+        for (int i = 0; i < pixels.length; i++) {
+            int rgba = pixels[i];
+            int r = ((rgba >>> 24) * redFactor) >> 8;
+            int g = (((rgba >>> 16) & 0xFF) * greenFactor) >> 8;
+            int b = (((rgba >>> 8) & 0xFF) * blueFactor) >> 8;
+            int a = ((rgba & 0xFF) * alphaFactor) >> 8;
+            pixels[i] = (a << 24) | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Wraps ARGB pixels into a TYPE_INT_ARGB image without copying them.
+     */
+    static BufferedImage createArgbImage(int[] pixels, int width, int height) {
+        DataBufferInt dataBuffer = new DataBufferInt(pixels, pixels.length);
+        ColorModel colorModel = ColorModel.getRGBdefault();
+        WritableRaster raster = Raster.createPackedRaster(dataBuffer, width, height, width,
+                new int[]{0xFF0000, 0xFF00, 0xFF, 0xFF000000}, null);
+        return new BufferedImage(colorModel, raster, false, null);
     }
 
     /**
@@ -264,13 +390,11 @@ public class AwtTexture extends Texture {
      * We might want to look at this at some point.
      * 
     */
-    private synchronized BufferedImage createCompatibleImage(BufferedImage image) {
+    private static BufferedImage createCompatibleImage(BufferedImage image) {
         //  worked for msteiger, just in case what we're doing below breaks it again
         //      BufferedImage bufferedImageArgb = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
 
-        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
-
-        BufferedImage newImage = gc.createCompatibleImage(
+        BufferedImage newImage = CompatibleImages.create(
                 image.getWidth(),
                 image.getHeight(),
                 Transparency.TRANSLUCENT);
@@ -282,42 +406,66 @@ public class AwtTexture extends Texture {
         return newImage;
     }
 
-    public synchronized BufferedImage getCachedBorderTexture(BufferedImageCacheKey key) {
-        return resources.cachedBorderedTextures.get(key);
+    private enum ImageKind {
+        CONVERTED,
+        TINTED_REGION
     }
 
-    public synchronized BufferedImage putCachedBorderTexture(BufferedImageCacheKey key, BufferedImage bufferedImage) {
-        return resources.cachedBorderedTextures.put(key, bufferedImage);
+    /**
+     * A key in the shared image cache: the texture, the kind of image, and its parameters.
+     */
+    private static final class ImageCacheKey {
+
+        private final TextureResources owner;
+        private final ImageKind kind;
+        private final BufferedImageCacheKey parameters;
+
+        ImageCacheKey(TextureResources owner, ImageKind kind, BufferedImageCacheKey parameters) {
+            this.owner = owner;
+            this.kind = kind;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof ImageCacheKey) {
+                ImageCacheKey other = (ImageCacheKey) obj;
+                return owner == other.owner
+                       && kind == other.kind
+                       && parameters.equals(other.parameters);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(owner), kind, parameters);
+        }
     }
 
     /**
-     * A key that identifies an entry in the bufferedImage cache. It contains the elements that affect the generation of mesh for texture rendering.
+     * A key that identifies an entry in the bufferedImage cache. It contains the elements that affect the conversion of the texture.
      */
     public static class BufferedImageCacheKey {
 
         private Vector2i textureSize;
-        private Vector2i areaSize;
-        private Border border;
-        private boolean tiled;
-        private float uw;
-        private float uh;
+        private Rect2i region;
         private float alpha;
         private Color color;
 
         public BufferedImageCacheKey(int width, int height, float alpha, Color color) {
             this.textureSize = new Vector2i(width, height);
-            this.alpha = alpha;
+            this.alpha = quantizeAlpha(alpha);
             this.color = color;
         }
 
-        public BufferedImageCacheKey(Vector2i textureSize, Vector2i areaSize, Border border, boolean tiled, float uw, float uh, float alpha) {
-            this.textureSize = new Vector2i(textureSize);
-            this.areaSize = new Vector2i(areaSize);
-            this.border = border;
-            this.tiled = tiled;
-            this.uw = uw;
-            this.uh = uh;
-            this.alpha = alpha;
+        public BufferedImageCacheKey(Rect2i region, Color color) {
+            this.region = region;
+            this.alpha = 1f;
+            this.color = color;
         }
 
         @Override
@@ -328,11 +476,7 @@ public class AwtTexture extends Texture {
             if (obj instanceof BufferedImageCacheKey) {
                 BufferedImageCacheKey other = (BufferedImageCacheKey) obj;
                 return Objects.equals(textureSize, other.textureSize)
-                       && Objects.equals(areaSize, other.areaSize)
-                       && Objects.equals(border, other.border)
-                       && tiled == other.tiled
-                       && uw == other.uw
-                       && uh == other.uh
+                       && Objects.equals(region, other.region)
                        && alpha == other.alpha
                        && Objects.equals(color, other.color);
             }
@@ -341,79 +485,7 @@ public class AwtTexture extends Texture {
 
         @Override
         public int hashCode() {
-            return Objects.hash(textureSize, areaSize, border, tiled, uw, uh, alpha);
+            return Objects.hash(textureSize, region, alpha, color);
         }
     }
-
-    public static class IntBufferBackedDataBufferAlphaAndColor extends DataBuffer {
-        private final IntBuffer buf;
-        private final float red;
-        private final float green;
-        private final float blue;
-        private final float alpha;
-
-        public IntBufferBackedDataBufferAlphaAndColor(IntBuffer buf, float alpha, Color color) {
-            super(DataBuffer.TYPE_INT, buf.limit());
-            this.buf = buf;
-            this.red = color.rf();
-            this.green = color.gf();
-            this.blue = color.bf();
-            this.alpha = alpha * color.af();
-        }
-
-        @Override
-        public int getElem(int bank, int i) {
-            int v = buf.get(i);
-            return ((int) ((((v & 0xFF000000) >> 24) * red)) << 24)
-                   | ((int) ((((v & 0xFF0000) >> 16) * green)) << 16)
-                   | ((int) ((((v & 0xFF00) >> 8) * blue)) << 8)
-                   | ((int) ((v & 0xFF) * alpha));
-        }
-
-        @Override
-        public void setElem(int bank, int i, int val) {
-        }
-    }
-
-    public static final class IntBufferBackedDataBufferAlphaOnly extends DataBuffer {
-        private final IntBuffer buf;
-        private final float alpha;
-
-        public IntBufferBackedDataBufferAlphaOnly(IntBuffer buf, float alpha) {
-            super(DataBuffer.TYPE_INT, buf.limit());
-            this.buf = buf;
-            this.alpha = alpha;
-        }
-
-        @Override
-        public int getElem(int bank, int i) {
-            int v = buf.get(i);
-            return (v & 0xFFFFFF00)
-                   | ((int) ((v & 0xFF) * alpha));
-        }
-
-        @Override
-        public void setElem(int bank, int i, int val) {
-        }
-    }
-
-    public static final class IntBufferBackedDataBufferUnmodified extends DataBuffer {
-        private final IntBuffer buf;
-
-        public IntBufferBackedDataBufferUnmodified(IntBuffer buf) {
-            super(DataBuffer.TYPE_INT, buf.limit());
-            this.buf = buf;
-        }
-
-        @Override
-        public int getElem(int bank, int i) {
-            int v = buf.get(i);
-            return v;
-        }
-
-        @Override
-        public void setElem(int bank, int i, int val) {
-        }
-    }
-
 }
@@ -20,8 +20,10 @@ import java.awt.Graphics;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
 import java.awt.Point;
+import java.awt.image.BufferStrategy;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.Map;
 
 import javax.swing.JFrame;
 
@@ -29,10 +31,13 @@ import org.terasology.config.Config;
 import org.terasology.config.RenderingConfig;
 import org.terasology.context.Context;
 import org.terasology.engine.subsystem.DisplayDevice;
+import org.terasology.engine.subsystem.awt.AwtConfig;
 import org.terasology.rendering.nui.layers.mainMenu.videoSettings.DisplayModeSetting;
 import org.terasology.utilities.subscribables.AbstractSubscribable;
 
-public class AwtDisplayDevice extends AbstractSubscribable implements DisplayDevice {
+import com.google.common.collect.Maps;
+
+public class AwtDisplayDevice extends AbstractSubscribable implements DisplayDevice, AwtRenderTarget {
 
     private final JFrame mainFrame;
     private Context context;
@@ -42,6 +47,11 @@ public class AwtDisplayDevice extends AbstractSubscribable implements DisplayDev
     private Graphics drawGraphics;
     private int translatedX;
     private int translatedY;
+    private boolean clearPending;
+    private boolean frameCovered;
+
+    private final FramePacer framePacer;
+    private final Map<String, RenderLayer> layers = Maps.newHashMap();
     
     private DisplayModeSetting displayModeSetting;
 
@@ -49,6 +59,9 @@ public class AwtDisplayDevice extends AbstractSubscribable implements DisplayDev
         this.mainFrame = window;
         this.context = context;
 
+        AwtConfig awtConfig = context.get(AwtConfig.class);
+        this.framePacer = new FramePacer((null != awtConfig) ? awtConfig.getTargetFps() : 0);
+
         mainFrame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
 
         mainFrame.addWindowListener(new WindowAdapter() {
@@ -100,10 +113,11 @@ public class AwtDisplayDevice extends AbstractSubscribable implements DisplayDev
 
     @Override
     public void prepareToRender() {
-        Graphics g = getDrawGraphics();
-        g.clearRect(0, 0, mainFrame.getWidth(), mainFrame.getHeight());
+        // cleared when the frame is first drawn to, unless it is marked as covered before that
+        clearPending = true;
     }
 
+    @Override
     public Graphics getDrawGraphics() {
         if (null == drawGraphics) {
             drawGraphics = mainFrame.getBufferStrategy().getDrawGraphics();
@@ -113,24 +127,53 @@ public class AwtDisplayDevice extends AbstractSubscribable implements DisplayDev
             translatedY = viewLoc.y - frameLoc.y;
             drawGraphics.translate(translatedX, translatedY);
         }
+        if (clearPending) {
+            clearPending = false;
+            if (!frameCovered) {
+                drawGraphics.clearRect(0, 0, getWidth(), getHeight());
+            }
+        }
 
         return drawGraphics;
     }
     
+    @Override
     public int getWidth() {
         // mainFrame.getWidth() returns the height including borders
         return mainFrame.getContentPane().getWidth();
     }
 
+    @Override
     public int getHeight() {
         // mainFrame.getHeight() returns the height including borders
         return mainFrame.getContentPane().getHeight();
     }
     
+    @Override
+    public RenderLayer getLayer(String name, boolean opaque) {
+        return layers.computeIfAbsent(name, layerName -> new RenderLayer(layerName, mainFrame.getGraphicsConfiguration(), opaque));
+    }
+
+    @Override
+    public void markFrameCovered() {
+        frameCovered = true;
+    }
+
+    @Override
     public void show() {
-        mainFrame.getBufferStrategy().show();
-        drawGraphics.dispose();
-        drawGraphics = null;
+        BufferStrategy bufferStrategy = mainFrame.getBufferStrategy();
+        if (null != drawGraphics) {
+            drawGraphics.dispose();
+            drawGraphics = null;
+        }
+
+        // the buffer was lost while drawing: drop the frame rather than show garbage
+        if (!bufferStrategy.contentsRestored() && !bufferStrategy.contentsLost()) {
+            bufferStrategy.show();
+        }
+        frameCovered = false;
+
+        framePacer.awaitNextFrame();
     }
 
 	@Override
@@ -17,8 +17,11 @@ package org.terasology.engine.subsystem.awt.devices;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import javax.swing.JFrame;
 
@@ -35,6 +38,8 @@ import com.google.common.collect.Queues;
 
 public class AwtKeyboardDevice implements KeyboardDevice {
 
+    private static final ButtonState[] BUTTON_STATES = ButtonState.values();
+
     public enum KeyLookupTable {
         NONE(KeyId.NONE, KeyEvent.VK_UNDEFINED),
         ESCAPE(KeyId.ESCAPE, KeyEvent.VK_ESCAPE),
@@ -333,15 +338,20 @@ public class AwtKeyboardDevice implements KeyboardDevice {
         }
     };
 
+    private static final int INPUT_RING_CAPACITY = 256;
+    // all KeyId values are below this
+    private static final int MAX_KEY_ID = 256;
+
     private JFrame mainWindow;
 
-    private Queue<KeyboardAction> inputQueue = Queues.newArrayDeque();
-    private Object inputQueueLock = new Object();
-    private int keyDown;
+    // written by the AWT event thread, drained by the game loop
+    private final InputEventRing inputRing = new InputEventRing(INPUT_RING_CAPACITY);
+    private final Queue<KeyboardAction> drainedActions = Queues.newArrayDeque();
+    // one bit for each KeyId that is down, set and cleared by the AWT event thread
+    private final AtomicLongArray keysDown = new AtomicLongArray(MAX_KEY_ID / Long.SIZE);
 
     public AwtKeyboardDevice(JFrame mainFrame) {
         this.mainWindow = mainFrame;
-        keyDown = -1;
 
         mainWindow.setFocusTraversalKeysEnabled(false);
         mainWindow.addKeyListener(new KeyListener() {
@@ -360,11 +370,9 @@ public class AwtKeyboardDevice implements KeyboardDevice {
 
             @Override
             public void keyReleased(KeyEvent e) {
-                keyDown = -1;
-                KeyboardAction event = new KeyboardAction(InputType.KEY.getInput(translateVTKeyCodeToTerasologyKeyCode(e)), ButtonState.UP, e.getKeyChar());
-                synchronized (inputQueueLock) {
-                    inputQueue.add(event);
-                }
+                int key = translateVTKeyCodeToTerasologyKeyCode(e);
+                setKeyDown(key, false);
+                inputRing.offer(key, ButtonState.UP.ordinal(), e.getKeyChar(), 0, 0);
             }
 
             private int translateVTKeyCodeToTerasologyKeyCode(KeyEvent e) {
@@ -378,28 +386,63 @@ public class AwtKeyboardDevice implements KeyboardDevice {
 
             @Override
             public void keyPressed(KeyEvent e) {
-                keyDown = translateVTKeyCodeToTerasologyKeyCode(e);
-                KeyboardAction event = new KeyboardAction(InputType.KEY.getInput(keyDown), ButtonState.DOWN, e.getKeyChar());
-                synchronized (inputQueueLock) {
-                    inputQueue.add(event);
-                }
+                int key = translateVTKeyCodeToTerasologyKeyCode(e);
+                // AWT repeats keyPressed while a key is held
+                boolean wasDown = setKeyDown(key, true);
+                ButtonState state = wasDown ? ButtonState.REPEAT : ButtonState.DOWN;
+                inputRing.offer(key, state.ordinal(), e.getKeyChar(), 0, 0);
             }
 
         });
+
+        // the window gets no keyReleased for keys that are let go while it is in the background
+        mainWindow.addWindowFocusListener(new WindowAdapter() {
+
+            @Override
+            public void windowLostFocus(WindowEvent e) {
+                for (int key = 0; key < MAX_KEY_ID; key++) {
+                    if (setKeyDown(key, false)) {
+                        inputRing.offer(key, ButtonState.UP.ordinal(), KeyEvent.CHAR_UNDEFINED, 0, 0);
+                    }
+                }
+            }
+        });
     }
 
     @Override
     public boolean isKeyDown(int key) {
-        return key == keyDown;
+        if (key <= Keyboard.KEY_NONE || key >= MAX_KEY_ID) {
+            return false;
+        }
+        return (keysDown.get(key / Long.SIZE) & (1L << key)) != 0;
+    }
+
+    /**
+     * @return true if the key was down before
+     */
+    private boolean setKeyDown(int key, boolean down) {
+        if (key <= Keyboard.KEY_NONE || key >= MAX_KEY_ID) {
+            return false;
+        }
+        int index = key / Long.SIZE;
+        long bit = 1L << key;
+        long previous;
+        if (down) {
+            previous = keysDown.getAndUpdate(index, bits -> bits | bit);
+        } else {
+            previous = keysDown.getAndUpdate(index, bits -> bits & ~bit);
+        }
+        return (previous & bit) != 0;
     }
 
+    /**
+     * Returns the actions since the last call. The queue is reused by the next call.
+     */
     @Override
     public Queue<KeyboardAction> getInputQueue() {
-        Queue<KeyboardAction> oldInputQueue;
-        synchronized (inputQueueLock) {
-            oldInputQueue = inputQueue;
-            inputQueue = Queues.newArrayDeque();
-        }
-        return oldInputQueue;
+        drainedActions.clear();
+        inputRing.drain((code, state, value, x, y) ->
+                drainedActions.add(new KeyboardAction(InputType.KEY.getInput(code), BUTTON_STATES[state], (char) value)));
+        return drainedActions;
     }
 }
@@ -21,8 +21,10 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
-import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
@@ -35,21 +37,33 @@ import org.terasology.input.device.MouseAction;
 import org.terasology.input.device.MouseDevice;
 import org.terasology.math.geom.Vector2i;
 
-import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 
 public class AwtMouseDevice implements MouseDevice {
     private static final Logger logger = LoggerFactory.getLogger(AwtMouseDevice.class);
 
-    private int mouseX;
-    private int mouseY;
-    private int prevMouseX;
-    private int prevMouseY;
+    private static final int INPUT_RING_CAPACITY = 1024;
+    private static final int MAX_BUTTONS = 16;
 
-    private Map<MouseInput, Boolean> isDownByMouseButtonNumber = Maps.newHashMap();     // capacity 16
-    
-    private Queue<MouseAction> inputQueue = Queues.newArrayDeque();
-    private Object inputQueueLock = new Object();
+    private static final MouseInput[] MOUSE_INPUTS = MouseInput.values();
+    private static final ButtonState[] BUTTON_STATES = ButtonState.values();
+
+    private volatile int mouseX;
+    private volatile int mouseY;
+
+    // the motion since the last frame, x in the upper and y in the lower half, so both are taken at once
+    private final AtomicLong pendingMotion = new AtomicLong();
+    // the wheel rotation since the last frame, positive when turned down
+    private final AtomicInteger pendingWheel = new AtomicInteger();
+    private int frameDeltaX;
+    private int frameDeltaY;
+
+    // 1 for each button id that is down
+    private final AtomicIntegerArray buttonsDown = new AtomicIntegerArray(MAX_BUTTONS);
+
+    // written by the AWT event thread, drained by the game loop
+    private final InputEventRing inputRing = new InputEventRing(INPUT_RING_CAPACITY);
+    private final Queue<MouseAction> drainedActions = Queues.newArrayDeque();
 
     public AwtMouseDevice(JFrame window) {
         
@@ -58,14 +72,12 @@ public class AwtMouseDevice implements MouseDevice {
             
             @Override
             public void mouseMoved(MouseEvent e) {
-                mouseX = e.getX();
-                mouseY = e.getY();
+                moveTo(e.getX(), e.getY());
             }
             
             @Override
             public void mouseDragged(MouseEvent e) {
-                mouseX = e.getX();
-                mouseY = e.getY();
+                moveTo(e.getX(), e.getY());
             }
         });
 
@@ -73,17 +85,8 @@ public class AwtMouseDevice implements MouseDevice {
 
             @Override
             public void mouseWheelMoved(MouseWheelEvent e) {
-                int wheelRotation = e.getWheelRotation();
-
-                MouseInput input = (wheelRotation < 0) ?
-                    MouseInput.WHEEL_UP :
-                    MouseInput.WHEEL_DOWN;
-                
                 // TODO: need to determine if wheel button is pressed
-                MouseAction event = new MouseAction(input, Math.abs(wheelRotation), getPosition());
-                synchronized (inputQueueLock) {
-                    inputQueue.add(event);
-                }
+                pendingWheel.addAndGet(e.getWheelRotation());
             }
         });
 
@@ -105,21 +108,15 @@ public class AwtMouseDevice implements MouseDevice {
             @Override
             public void mouseReleased(MouseEvent e) {
                 MouseInput input = getMouseButtonNumberForMouseEvent(e);
-                MouseAction event = new MouseAction(input, ButtonState.UP, getPosition());
-                synchronized (inputQueueLock) {
-                    inputQueue.add(event);
-                }
-                isDownByMouseButtonNumber.put(input, Boolean.FALSE);
+                inputRing.offer(input.ordinal(), ButtonState.UP.ordinal(), 0, e.getX(), e.getY());
+                setButtonDown(input, false);
             }
 
             @Override
             public void mousePressed(MouseEvent e) {
                 MouseInput input = getMouseButtonNumberForMouseEvent(e);
-                MouseAction event = new MouseAction(input, ButtonState.DOWN, getPosition());
-                synchronized (inputQueueLock) {
-                    inputQueue.add(event);
-                }
-                isDownByMouseButtonNumber.put(input, Boolean.TRUE);
+                inputRing.offer(input.ordinal(), ButtonState.DOWN.ordinal(), 0, e.getX(), e.getY());
+                setButtonDown(input, true);
             }
         });
     }
@@ -129,34 +126,64 @@ public class AwtMouseDevice implements MouseDevice {
         return new Vector2i(mouseX, mouseY);
     }
 
+    /**
+     * Takes the motion of all move events since the last frame as the delta of this frame.
+     */
     public void update(float delta) {
-        prevMouseX = mouseX;
-        prevMouseY = mouseY;
+        long motion = pendingMotion.getAndSet(0);
+        frameDeltaY = (int) motion;
+        frameDeltaX = (int) ((motion - frameDeltaY) >> 32);
     }
 
     @Override
     public Vector2i getDelta() {
-        return new Vector2i(mouseX - prevMouseX, mouseY - prevMouseY);
+        return new Vector2i(frameDeltaX, frameDeltaY);
+    }
+
+    /**
+     * Called by the AWT event thread for every move event.
+     */
+    private void moveTo(int x, int y) {
+        long dx = x - mouseX;
+        long dy = y - mouseY;
+        mouseX = x;
+        mouseY = y;
+        pendingMotion.addAndGet((dx << 32) + dy);
     }
 
     @Override
     public boolean isButtonDown(int buttonNumber) {
-        Boolean isDown = isDownByMouseButtonNumber.get(buttonNumber);
-        if (null == isDown) {
+        if (buttonNumber < 0 || buttonNumber >= MAX_BUTTONS) {
             return false;
         }
+        return buttonsDown.get(buttonNumber) != 0;
+    }
 
-        return isDown.booleanValue();
+    private void setButtonDown(MouseInput input, boolean down) {
+        int id = input.getId();
+        if (id >= 0 && id < MAX_BUTTONS) {
+            buttonsDown.set(id, down ? 1 : 0);
+        }
     }
 
+    /**
+     * Returns the actions since the last call. The queue is reused by the next call.
+     */
     @Override
     public Queue<MouseAction> getInputQueue() {
-        Queue<MouseAction> oldInputQueue;
-        synchronized (inputQueueLock) {
-            oldInputQueue = inputQueue;
-            inputQueue = Queues.newArrayDeque();
+        drainedActions.clear();
+        inputRing.drain((code, state, value, x, y) ->
+                drainedActions.add(new MouseAction(MOUSE_INPUTS[code], BUTTON_STATES[state], new Vector2i(x, y))));
+
+        // all wheel events of the frame become a single action
+        int wheelRotation = pendingWheel.getAndSet(0);
+        if (wheelRotation != 0) {
+            MouseInput input = (wheelRotation < 0) ?
+                MouseInput.WHEEL_UP :
+                MouseInput.WHEEL_DOWN;
+            drainedActions.add(new MouseAction(input, Math.abs(wheelRotation), getPosition()));
         }
-        return oldInputQueue;
+        return drainedActions;
     }
 
     @Override
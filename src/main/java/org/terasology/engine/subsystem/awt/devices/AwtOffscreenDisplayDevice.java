@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.devices;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+
+import org.terasology.engine.subsystem.DisplayDevice;
+import org.terasology.rendering.nui.layers.mainMenu.videoSettings.DisplayModeSetting;
+import org.terasology.utilities.subscribables.AbstractSubscribable;
+
+import com.google.common.collect.Maps;
+
+/**
+ * A display without a window. Frames are drawn into a plain {@link BufferedImage},
+ * the last completed frame can be taken with {@link #getLastFrame()}.
+ */
+public class AwtOffscreenDisplayDevice extends AbstractSubscribable implements DisplayDevice, AwtRenderTarget {
+
+    private final int width;
+    private final int height;
+
+    private BufferedImage backImage;
+    private BufferedImage frontImage;
+    private Graphics drawGraphics;
+    private boolean clearPending;
+    private boolean frameCovered;
+    private final Map<String, RenderLayer> layers = Maps.newHashMap();
+
+    private DisplayModeSetting displayModeSetting = DisplayModeSetting.WINDOWED;
+
+    public AwtOffscreenDisplayDevice(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.backImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.frontImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    @Override
+    public boolean isCloseRequested() {
+        return false;
+    }
+
+    @Override
+    public void setFullscreen(boolean state) {
+        // there is no screen to fill
+    }
+
+    @Override
+    public void processMessages() {
+    }
+
+    @Override
+    public boolean isHeadless() {
+        return true;
+    }
+
+    @Override
+    public void prepareToRender() {
+        // cleared when the frame is first drawn to, unless it is marked as covered before that
+        clearPending = true;
+    }
+
+    @Override
+    public Graphics getDrawGraphics() {
+        if (null == drawGraphics) {
+            drawGraphics = backImage.createGraphics();
+        }
+        if (clearPending) {
+            clearPending = false;
+            if (!frameCovered) {
+                drawGraphics.clearRect(0, 0, width, height);
+            }
+        }
+        return drawGraphics;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public RenderLayer getLayer(String name, boolean opaque) {
+        // without a screen there is no video memory to keep the layers in
+        return layers.computeIfAbsent(name, layerName -> new RenderLayer(layerName, null, opaque));
+    }
+
+    @Override
+    public void markFrameCovered() {
+        frameCovered = true;
+    }
+
+    @Override
+    public void show() {
+        frameCovered = false;
+
+        if (null != drawGraphics) {
+            drawGraphics.dispose();
+            drawGraphics = null;
+        }
+
+        BufferedImage completedImage = backImage;
+        backImage = frontImage;
+        frontImage = completedImage;
+    }
+
+    /**
+     * @return the last completed frame; it is drawn over again two frames later, so copy it to keep it
+     */
+    public BufferedImage getLastFrame() {
+        return frontImage;
+    }
+
+    @Override
+    public boolean isFullscreen() {
+        return false;
+    }
+
+    @Override
+    public void setDisplayModeSetting(DisplayModeSetting displayModeSetting) {
+        this.displayModeSetting = displayModeSetting;
+    }
+
+    @Override
+    public DisplayModeSetting getDisplayModeSetting() {
+        return displayModeSetting;
+    }
+
+    @Override
+    public void update() {
+    }
+
+    @Override
+    public boolean hasFocus() {
+        return true;
+    }
+}
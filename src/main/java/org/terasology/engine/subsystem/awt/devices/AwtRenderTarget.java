@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.devices;
+
+import java.awt.Graphics;
+
+/**
+ * Something the world and the UI are drawn onto, one frame at a time.
+ */
+public interface AwtRenderTarget {
+
+    String WORLD_LAYER = "world";
+    String NUI_LAYER = "nui";
+
+    /**
+     * @return the graphics to draw the current frame with; the same instance until {@link #show()} is called
+     */
+    Graphics getDrawGraphics();
+
+    /**
+     * @return the width of the drawable area in pixels
+     */
+    int getWidth();
+
+    /**
+     * @return the height of the drawable area in pixels
+     */
+    int getHeight();
+
+    /**
+     * @return the layer with the given name, created the first time it is asked for
+     */
+    RenderLayer getLayer(String name, boolean opaque);
+
+    /**
+     * Tells the target that the current frame will be drawn over completely, so that it does not need to be cleared.
+     * Must be called before the graphics of the frame are first asked for, which is when the frame is cleared otherwise.
+     */
+    void markFrameCovered();
+
+    /**
+     * Completes the current frame.
+     */
+    void show();
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.devices;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the render loop to a target frame rate. It sleeps for most of the time that is left
+ * of a frame and yields for the rest, since sleeping is only accurate to about a millisecond.
+ */
+public class FramePacer {
+
+    private static final long YIELD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int targetFps;
+    private final long frameNanos;
+    private long nextFrameTime;
+
+    /**
+     * @param targetFps the frames per second to keep to, or 0 to not wait at all
+     */
+    public FramePacer(int targetFps) {
+        this.targetFps = Math.max(targetFps, 0);
+        this.frameNanos = (this.targetFps > 0) ? TimeUnit.SECONDS.toNanos(1) / this.targetFps : 0;
+    }
+
+    public int getTargetFps() {
+        return targetFps;
+    }
+
+    /**
+     * Waits until the current frame has taken its share of time.
+     */
+    public void awaitNextFrame() {
+        if (frameNanos == 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (nextFrameTime == 0 || now - nextFrameTime > frameNanos) {
+            // the first frame, or more than a frame late: start over instead of rushing to catch up
+            nextFrameTime = now + frameNanos;
+            return;
+        }
+
+        long remaining = nextFrameTime - now;
+        while (remaining > YIELD_NANOS) {
+            long sleepNanos = remaining - YIELD_NANOS;
+            try {
+                Thread.sleep(TimeUnit.NANOSECONDS.toMillis(sleepNanos), (int) (sleepNanos % 1000000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            remaining = nextFrameTime - System.nanoTime();
+        }
+        while (nextFrameTime - System.nanoTime() > 0) {
+            Thread.yield();
+        }
+        nextFrameTime += frameNanos;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.devices;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded queue of input events from one producer thread, the AWT event thread, to one consumer thread,
+ * the game loop. The events are kept as plain values in preallocated slots, so neither side allocates
+ * or takes a lock. When the game does not keep up and the ring is full, new events are dropped.
+ */
+public class InputEventRing {
+
+    /**
+     * Receives the values of the events that are taken from the ring.
+     */
+    public interface EventVisitor {
+        void visit(int code, int state, int value, int x, int y);
+    }
+
+    private final int mask;
+    private final int[] codes;
+    private final int[] states;
+    private final int[] values;
+    private final int[] xs;
+    private final int[] ys;
+
+    // the next slot to read, only written by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // the next slot to write, only written by the producer
+    private final AtomicLong tail = new AtomicLong();
+
+    private long droppedEvents;
+
+    /**
+     * @param capacity the number of events the ring holds, rounded up to a power of two
+     */
+    public InputEventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        mask = size - 1;
+        codes = new int[size];
+        states = new int[size];
+        values = new int[size];
+        xs = new int[size];
+        ys = new int[size];
+    }
+
+    /**
+     * Adds an event. Must only be called by the producer thread.
+     * @return false if the ring was full and the event was dropped
+     */
+    public boolean offer(int code, int state, int value, int x, int y) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() > mask) {
+            droppedEvents++;
+            return false;
+        }
+
+        int slot = (int) currentTail & mask;
+        codes[slot] = code;
+        states[slot] = state;
+        values[slot] = value;
+        xs[slot] = x;
+        ys[slot] = y;
+        // publishes the slot to the consumer
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Takes all events that are in the ring. Must only be called by the consumer thread.
+     * @return the number of events taken
+     */
+    public int drain(EventVisitor visitor) {
+        long currentHead = head.get();
+        long currentTail = tail.get();
+        for (long i = currentHead; i < currentTail; i++) {
+            int slot = (int) i & mask;
+            visitor.visit(codes[slot], states[slot], values[slot], xs[slot], ys[slot]);
+        }
+        // hands the slots back to the producer
+        head.lazySet(currentTail);
+        return (int) (currentTail - currentHead);
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return the number of events that were dropped because the ring was full, as counted by the producer
+     */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.devices;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.awt.image.VolatileImage;
+
+/**
+ * A part of the frame that is kept between frames, so that it only has to be drawn again when it changed.
+ * With a screen, the layer is a {@link VolatileImage} that Java2D can keep in video memory;
+ * the layer becomes dirty by itself when that memory is lost. Without a screen it is a plain image.
+ * <p>
+ * A frame checks {@link #needsRedraw(int, int)}, draws the layer between {@link #beginDraw(int, int)}
+ * and {@link #endDraw()} if needed, and then blits it with {@link #drawTo(Graphics)}.
+ */
+public class RenderLayer {
+
+    private final String name;
+    private final GraphicsConfiguration graphicsConfiguration;
+    private final boolean opaque;
+
+    private VolatileImage volatileImage;
+    private BufferedImage bufferedImage;
+    private int width;
+    private int height;
+    private boolean dirty = true;
+
+    private Graphics2D graphics;
+
+    /**
+     * @param graphicsConfiguration the screen the layer is drawn to, or null to keep the layer in a plain image
+     * @param opaque true if the layer is drawn over completely, so that it needs no transparency
+     */
+    public RenderLayer(String name, GraphicsConfiguration graphicsConfiguration, boolean opaque) {
+        this.name = name;
+        this.graphicsConfiguration = graphicsConfiguration;
+        this.opaque = opaque;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Makes the layer draw again in the next frame.
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * @return true if the layer was marked dirty, changed size, or lost its contents in video memory
+     */
+    public boolean needsRedraw(int newWidth, int newHeight) {
+        if (dirty || !hasImage() || newWidth != width || newHeight != height) {
+            return true;
+        }
+        if (null != volatileImage && volatileImage.validate(graphicsConfiguration) != VolatileImage.IMAGE_OK) {
+            dirty = true;
+        }
+        return dirty;
+    }
+
+    /**
+     * @return the graphics to draw the layer with, cleared to transparent or black
+     */
+    public Graphics2D beginDraw(int newWidth, int newHeight) {
+        ensureImage(newWidth, newHeight);
+
+        graphics = (null != volatileImage) ? volatileImage.createGraphics() : bufferedImage.createGraphics();
+        if (opaque) {
+            graphics.clearRect(0, 0, width, height);
+        } else {
+            graphics.setComposite(AlphaComposite.Clear);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setComposite(AlphaComposite.SrcOver);
+        }
+        return graphics;
+    }
+
+    public void endDraw() {
+        graphics.dispose();
+        graphics = null;
+
+        // lost while drawing: try again in the next frame
+        dirty = null != volatileImage && volatileImage.contentsLost();
+    }
+
+    /**
+     * Draws the layer over the frame.
+     */
+    public void drawTo(Graphics g) {
+        Image image = (null != volatileImage) ? volatileImage : bufferedImage;
+        if (null == image) {
+            return;
+        }
+
+        ImageObserver observer = null;
+        g.drawImage(image, 0, 0, observer);
+        if (null != volatileImage && volatileImage.contentsLost()) {
+            dirty = true;
+        }
+    }
+
+    public void dispose() {
+        if (null != volatileImage) {
+            volatileImage.flush();
+            volatileImage = null;
+        }
+        bufferedImage = null;
+        dirty = true;
+    }
+
+    private boolean hasImage() {
+        return null != volatileImage || null != bufferedImage;
+    }
+
+    private void ensureImage(int newWidth, int newHeight) {
+        if (hasImage() && newWidth == width && newHeight == height) {
+            if (null == volatileImage || volatileImage.validate(graphicsConfiguration) != VolatileImage.IMAGE_INCOMPATIBLE) {
+                return;
+            }
+        }
+
+        dispose();
+        width = Math.max(newWidth, 1);
+        height = Math.max(newHeight, 1);
+        int transparency = opaque ? Transparency.OPAQUE : Transparency.TRANSLUCENT;
+        if (null != graphicsConfiguration) {
+            volatileImage = graphicsConfiguration.createCompatibleVolatileImage(width, height, transparency);
+        } else {
+            bufferedImage = new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        }
+    }
+}
@@ -15,28 +15,26 @@
  */
 package org.terasology.engine.subsystem.awt.renderer;
 
+import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
+import java.awt.Composite;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Stroke;
-import java.awt.font.FontRenderContext;
-import java.awt.font.LineBreakMeasurer;
-import java.awt.font.TextAttribute;
-import java.awt.font.TextLayout;
 import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
-import java.text.AttributedCharacterIterator;
-import java.text.AttributedString;
-
-import javax.swing.JFrame;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import org.terasology.assets.ResourceUrn;
 import org.terasology.context.Context;
+import org.terasology.engine.subsystem.awt.AwtConfig;
 import org.terasology.engine.subsystem.awt.assets.AwtFont;
 import org.terasology.engine.subsystem.awt.assets.AwtMaterial;
 import org.terasology.engine.subsystem.awt.assets.AwtTexture;
-import org.terasology.engine.subsystem.awt.assets.AwtTexture.BufferedImageCacheKey;
-import org.terasology.engine.subsystem.awt.devices.AwtDisplayDevice;
+import org.terasology.engine.subsystem.awt.devices.AwtRenderTarget;
+import org.terasology.engine.subsystem.awt.devices.RenderLayer;
 import org.terasology.math.Border;
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.BaseVector2i;
@@ -69,49 +67,157 @@ import org.terasology.world.block.family.BlockFamily;
 import org.terasology.world.block.family.BlockFamilyFactoryRegistry;
 import org.terasology.world.block.tiles.WorldAtlas;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
 /**
  * @author mkienenb
  */
 public class AwtCanvasRenderer implements CanvasRenderer {
 
-    private JFrame window;
     private Context context;
     
     private Graphics drawGraphics;
-    private AwtDisplayDevice awtDisplayDevice;
-
-    public AwtCanvasRenderer(JFrame window, AwtDisplayDevice awtDisplayDevice, Context context) {
+    private AwtRenderTarget renderTarget;
+    private final TextLayoutCache textLayoutCache = new TextLayoutCache();
+    private final Map<java.awt.Font, GlyphAtlas> glyphAtlases = Maps.newHashMap();
+    private boolean glyphAtlasText;
+
+    // the draw calls of the current and the last frame, while the UI is kept in a layer
+    private boolean cachedLayer;
+    private List<RecordedCall> recordedCalls;
+    private List<RecordedCall> previousCalls;
+
+    // the atlas pixels of each block mesh, for the blocks that were registered when they were resolved
+    private final Map<ResourceUrn, Rect2i> meshRegions = Maps.newHashMap();
+    private BlockManager meshRegionBlockManager;
+    private int meshRegionBlockFamilyCount;
+    private Texture meshRegionTexture;
+
+    public AwtCanvasRenderer(AwtRenderTarget renderTarget, Context context) {
     	this.context = context;
-        this.window = window;
-        this.awtDisplayDevice = awtDisplayDevice;
+        this.renderTarget = renderTarget;
+
+        AwtConfig awtConfig = context.get(AwtConfig.class);
+        if (null != awtConfig) {
+            glyphAtlasText = awtConfig.isGlyphAtlasText();
+            cachedLayer = awtConfig.isCachedLayers();
+        }
+    }
+
+    /**
+     * @param glyphAtlasText true to draw text from a {@link GlyphAtlas} of each font instead of as text layouts
+     */
+    public void setGlyphAtlasText(boolean glyphAtlasText) {
+        this.glyphAtlasText = glyphAtlasText;
+    }
+
+    /**
+     * @param cachedLayer true to keep the UI in a layer of the render target, which is only drawn again
+     * when the draw calls of a frame differ from those of the frame before
+     */
+    public void setCachedLayer(boolean cachedLayer) {
+        this.cachedLayer = cachedLayer;
     }
 
     @Override
     public void preRender() {
-        drawGraphics = awtDisplayDevice.getDrawGraphics();
+        drawGraphics = renderTarget.getDrawGraphics();
         drawGraphics.setPaintMode();
+        if (cachedLayer) {
+            recordedCalls = Lists.newArrayList();
+        }
     }
 
     @Override
     public void postRender() {
-        awtDisplayDevice.show();
+        if (null != recordedCalls) {
+            List<RecordedCall> calls = recordedCalls;
+            recordedCalls = null;
+            drawLayer(calls);
+        }
+        renderTarget.show();
+    }
+
+    private void drawLayer(List<RecordedCall> calls) {
+        int width = renderTarget.getWidth();
+        int height = renderTarget.getHeight();
+        RenderLayer nuiLayer = renderTarget.getLayer(AwtRenderTarget.NUI_LAYER, false);
+        if (!calls.equals(previousCalls) || nuiLayer.needsRedraw(width, height)) {
+            Graphics frameGraphics = drawGraphics;
+            drawGraphics = nuiLayer.beginDraw(width, height);
+            for (RecordedCall call : calls) {
+                call.run();
+            }
+            nuiLayer.endDraw();
+            drawGraphics = frameGraphics;
+        }
+        nuiLayer.drawTo(drawGraphics);
+        previousCalls = calls;
+    }
+
+    /**
+     * Keeps the call to draw it into the UI layer at the end of the frame, if the layer is used.
+     * @param arguments what the call draws, compared with the calls of the last frame
+     * @return true if the call was kept and must not draw now
+     */
+    private boolean recordCall(Runnable call, Object... arguments) {
+        if (null == recordedCalls) {
+            return false;
+        }
+        recordedCalls.add(new RecordedCall(call, arguments));
+        return true;
     }
 
     @Override
     public void drawMesh(Mesh mesh, Material material, Rect2i drawRegion, Rect2i cropRegion, Quat4f rotation, Vector3f offset, float scale, float alpha) {
+        if (recordCall(() -> drawMesh(mesh, material, drawRegion, cropRegion, rotation, offset, scale, alpha),
+                "mesh", mesh, material, drawRegion, alpha)) {
+            // the rotation, offset and scale of the mesh are not drawn
+            return;
+        }
         AwtMaterial awtMaterial = (AwtMaterial) material;
         Texture texture = awtMaterial.getTexture("texture");
         if (null == texture) {
             throw new RuntimeException("unsupported");
         }
 
-        Vector2f textureAtlasPos;
+        Rect2i sourceRegion = getMeshRegion(mesh.getUrn(), texture);
 
+        AwtTexture awtTexture = (AwtTexture) texture;
+        BufferedImage bufferedImage = awtTexture.getBufferedImage(texture.getWidth(), texture.getHeight(), 1f, Color.WHITE);
+        drawImageInternal(bufferedImage, drawRegion, sourceRegion, alpha);
+    }
+
+    /**
+     * @return the pixels of the terrain atlas that show the block mesh, resolved once per mesh
+     * and again after the registered blocks have changed
+     */
+    private Rect2i getMeshRegion(ResourceUrn meshUrn, Texture texture) {
         BlockManager blockManager = context.get(BlockManager.class);
         if (null == blockManager) {
             blockManager = CoreRegistry.get(BlockManager.class);
         }
-        ResourceUrn meshUrn = mesh.getUrn(); // engine:blockmesh#core:Torch.TOP
+        int blockFamilyCount = blockManager.getBlockFamilyCount();
+        if (blockManager != meshRegionBlockManager || blockFamilyCount != meshRegionBlockFamilyCount || texture != meshRegionTexture) {
+            meshRegions.clear();
+            meshRegionBlockManager = blockManager;
+            meshRegionBlockFamilyCount = blockFamilyCount;
+            meshRegionTexture = texture;
+        }
+
+        Rect2i region = meshRegions.get(meshUrn);
+        if (null == region) {
+            region = resolveMeshRegion(meshUrn, texture, blockManager);
+            meshRegions.put(meshUrn, region);
+        }
+        return region;
+    }
+
+    private Rect2i resolveMeshRegion(ResourceUrn meshUrn, Texture texture, BlockManager blockManager) {
+        Vector2f textureAtlasPos;
+
+        // meshUrn: engine:blockmesh#core:Torch.TOP
         Name blockFragmentNameConvert = meshUrn.getFragmentName(); // core:Torch.TOP
         BlockUri blockUri = new BlockUri(blockFragmentNameConvert.toLowerCase());
         Name blockFragmentName = blockUri.getIdentifier();
@@ -140,19 +246,13 @@ public class AwtCanvasRenderer implements CanvasRenderer {
         }
         float tileSize = worldAtlas.getRelativeTileSize();
 
-        float ux = 0f;
-        float uy = 0f;
-        float uw = 1f;
-        float uh = 1f;
-
         TextureRegion textureRegion = new BasicTextureRegion(texture, textureAtlasPos, new Vector2f(tileSize, tileSize));
-        drawTexture(textureRegion, Color.WHITE, ScaleMode.STRETCH, drawRegion, ux, uy, uw, uh, alpha);
-        return;
+        return textureRegion.getPixelRegion();
     }
 
     @Override
     public Vector2i getTargetSize() {
-        return new Vector2i(window.getContentPane().getWidth(), window.getContentPane().getHeight());
+        return new Vector2i(renderTarget.getWidth(), renderTarget.getHeight());
     }
 
     @Override
@@ -162,6 +262,9 @@ public class AwtCanvasRenderer implements CanvasRenderer {
 
     @Override
     public void drawLine(int sx, int sy, int ex, int ey, Color color) {
+        if (recordCall(() -> drawLine(sx, sy, ex, ey, color), "line", sx, sy, ex, ey, color)) {
+            return;
+        }
         drawGraphics.setColor(getAwtColor(color));
         Graphics2D g2 = (Graphics2D) drawGraphics;
         Stroke originalStroke = g2.getStroke();
@@ -185,108 +288,30 @@ public class AwtCanvasRenderer implements CanvasRenderer {
     }
 
     /**
-     * This content is from Stack Overflow.
-     * http://stackoverflow.com/questions/13323701/align-text-to-the-right-in-a-textlayout-using-java-graphics2d-api/13325210#13325210
-     * http://creativecommons.org/licenses/by-sa/3.0/
-     * by giorgiline
-     * http://stackoverflow.com/users/1136158/giorgiline
-     * Note that this code has been modified from the original.
-     * 
-     * Apparently, it's ok to use this code without doing anything further than the above:
-     * http://meta.stackoverflow.com/questions/139698/re-using-ideas-or-small-pieces-of-code-from-stackoverflow-com#139701
-     * Ideally we would contact giorgiline and request an ASF-compatible license, 
-     * but StackOverflow makes it impossible for me to communicate with giorgiline directly.
-     * 
-     * Draw paragraph.
-     * Pinta un parrafo segun las localizaciones pasadas como parametros.
-     *
-     * @param g2 Drawing graphic.
-     * @param text String to draw.
-     * @param vAlign 
-     * @param width Paragraph's desired width.
-     * @param x Start paragraph's X-Position.
-     * @param y Start paragraph's Y-Position.
-     * @param dir Paragraph's alignment.
-     * @return Next line Y-position to write to.
+     * Lays out the paragraph through the layout cache, so only text that changed is broken into lines again.
+     * @return the y-position below the last line
      */
     private float drawParagraph(Graphics2D g2, java.awt.Font font, String text,
                                 Rect2i absoluteRegion,
                                 HorizontalAlign alignment, VerticalAlign vAlign) {
-        boolean isCalculating = true;
-        float newY = drawParagraph(g2, font, text, absoluteRegion.width(), absoluteRegion.minX(), absoluteRegion.minY(), alignment, isCalculating);
-        int vOffset = vAlign.getOffset(((int) newY) - absoluteRegion.minY(), absoluteRegion.height());
-        isCalculating = false;
-        return drawParagraph(g2, font, text, absoluteRegion.width(), absoluteRegion.minX(), absoluteRegion.minY() + vOffset, alignment, isCalculating);
-    }
-
-    private float drawParagraph(Graphics2D g2, java.awt.Font font, String originalText,
-                                int widthInt, int xInt, int yInt,
-                                HorizontalAlign alignment, boolean isCalculating) {
-
-        float width = (float) widthInt;
-        float x = (float) xInt;
-        float y = (float) yInt;
-
-        float drawPosY = y;
-
-        String[] textArray = originalText.split("\n");
-        for (int index = 0; index < textArray.length; index++) {
-            String text = textArray[index];
-
-            AttributedString attstring;
-            if (text.length() == 0) {
-                attstring = new AttributedString(" ");
-            } else {
-                attstring = new AttributedString(text);
-            }
-
-            attstring.addAttribute(TextAttribute.FONT, font);
-            AttributedCharacterIterator paragraph = attstring.getIterator();
-            int paragraphStart = paragraph.getBeginIndex();
-            int paragraphEnd = paragraph.getEndIndex();
-            FontRenderContext frc = g2.getFontRenderContext();
-            LineBreakMeasurer lineMeasurer = new LineBreakMeasurer(paragraph, frc);
-
-            // Set break width to width of Component.
-            float breakWidth = width;
-            // Set position to the index of the first character in the paragraph.
-            lineMeasurer.setPosition(paragraphStart);
-
-            // Get lines until the entire paragraph has been displayed.
-            while (lineMeasurer.getPosition() < paragraphEnd) {
-                // Retrieve next layout. A cleverer program would also cache
-                // these layouts until the component is re-sized.
-                TextLayout layout = lineMeasurer.nextLayout(breakWidth);
-                // Compute pen x position. 
-                float drawPosX;
-                switch (alignment) {
-                    case RIGHT:
-                        drawPosX = (float) x + breakWidth - layout.getAdvance();
-                        break;
-                    case CENTER:
-                        drawPosX = (float) x + (breakWidth - layout.getAdvance()) / 2;
-                        break;
-                    default:
-                        drawPosX = (float) x;
-                }
-                // Move y-coordinate by the ascent of the layout.
-                drawPosY += layout.getAscent();
-
-                if (!isCalculating) {
-                    // Draw the TextLayout at (drawPosX, drawPosY).
-                    layout.draw(g2, drawPosX, drawPosY);
-                }
-
-                // Move y-coordinate in preparation for next layout.
-                drawPosY += layout.getDescent() + layout.getLeading();
-            }
+        TextLayoutCache.ParagraphLayout layout = textLayoutCache.getLayout(text, font, g2.getFontRenderContext(), absoluteRegion.width(), alignment);
+        int vOffset = vAlign.getOffset((int) layout.getHeight(), absoluteRegion.height());
+        if (glyphAtlasText) {
+            GlyphAtlas glyphAtlas = glyphAtlases.computeIfAbsent(font, GlyphAtlas::new);
+            layout.draw(g2, absoluteRegion.minX(), absoluteRegion.minY() + vOffset, glyphAtlas);
+        } else {
+            layout.draw(g2, absoluteRegion.minX(), absoluteRegion.minY() + vOffset);
         }
-        return drawPosY;
+        return absoluteRegion.minY() + vOffset + layout.getHeight();
     }
 
     @Override
     public void drawText(String text, Font font, HorizontalAlign hAlign, VerticalAlign vAlign, Rect2i absoluteRegion, Color color,
             Color shadowColor, float alpha, boolean underlined) {
+        if (recordCall(() -> drawText(text, font, hAlign, vAlign, absoluteRegion, color, shadowColor, alpha, underlined),
+                "text", text, font, hAlign, vAlign, absoluteRegion, color, shadowColor, alpha, underlined)) {
+            return;
+        }
     	// TODO: did not use underlined yet.
         java.awt.Font javaAwtFont = ((AwtFont) font).getAwtFont();
 
@@ -303,6 +328,9 @@ public class AwtCanvasRenderer implements CanvasRenderer {
 
     @Override
     public void crop(Rect2i cropRegion) {
+        if (recordCall(() -> crop(cropRegion), "crop", cropRegion)) {
+            return;
+        }
         drawGraphics.setClip(null);
         drawGraphics.clipRect(cropRegion.minX(), cropRegion.minY(), cropRegion.width() + 1, cropRegion.height() + 1);
     }
@@ -311,6 +339,10 @@ public class AwtCanvasRenderer implements CanvasRenderer {
     public void drawTexture(TextureRegion textureRegion, Color color, ScaleMode mode,
                             Rect2i absoluteRegion,
                             float ux, float uy, float uw, float uh, float alpha) {
+        if (recordCall(() -> drawTexture(textureRegion, color, mode, absoluteRegion, ux, uy, uw, uh, alpha),
+                "texture", textureRegion, color, mode, absoluteRegion, ux, uy, uw, uh, alpha)) {
+            return;
+        }
         // TODO: I think we might want to crop at this point, like LwjglCanvasRender does
 
         //        vec4 pos = gl_Vertex;
@@ -335,19 +367,27 @@ public class AwtCanvasRenderer implements CanvasRenderer {
         Texture texture = textureRegion.getTexture();
         AwtTexture awtTexture = (AwtTexture) texture;
 
-        BufferedImage bufferedImage = awtTexture.getBufferedImage(texture.getWidth(), texture.getHeight(), alpha, color);
-
         Rect2i sourceRegion = getSourceRegion(textureRegion, ux, uy, uw, uh);
+        BufferedImage bufferedImage;
+        if (isUntinted(color)) {
+            bufferedImage = awtTexture.getBufferedImage(texture.getWidth(), texture.getHeight(), 1f, Color.WHITE);
+        } else {
+            // only the drawn part of the texture is tinted
+            bufferedImage = awtTexture.getTintedRegion(sourceRegion, color);
+            sourceRegion = Rect2i.createFromMinAndSize(0, 0, sourceRegion.width(), sourceRegion.height());
+        }
+        float drawAlpha = alpha * color.af();
+
         Rect2i destinationRegion = getDestinationRegion(textureRegion, absoluteRegion, mode);
         switch (mode) {
             case SCALE_FILL:
-                drawImageInternal(bufferedImage, destinationRegion, sourceRegion);
+                drawImageInternal(bufferedImage, destinationRegion, sourceRegion, drawAlpha);
                 break;
             case SCALE_FIT:
-                drawImageInternal(bufferedImage, destinationRegion, sourceRegion);
+                drawImageInternal(bufferedImage, destinationRegion, sourceRegion, drawAlpha);
                 break;
             case STRETCH:
-                drawImageInternal(bufferedImage, absoluteRegion, sourceRegion);
+                drawImageInternal(bufferedImage, absoluteRegion, sourceRegion, drawAlpha);
                 break;
             case TILED:
                 int xInc = absoluteRegion.width();
@@ -355,7 +395,7 @@ public class AwtCanvasRenderer implements CanvasRenderer {
                 for (int x = absoluteRegion.minX(); x < xInc; x += xInc) {
                     for (int y = absoluteRegion.maxX(); y < yInc; y += yInc) {
                         Rect2i tileDestinationRegion = Rect2i.createFromMinAndSize(new Vector2i(x, y), sourceRegion.size());
-                        drawImageInternal(bufferedImage, tileDestinationRegion, sourceRegion);
+                        drawImageInternal(bufferedImage, tileDestinationRegion, sourceRegion, drawAlpha);
                     }
                 }
                 break;
@@ -398,6 +438,27 @@ public class AwtCanvasRenderer implements CanvasRenderer {
         return textureArea2;
     }
 
+    private static boolean isUntinted(Color color) {
+        return color.r() == 255 && color.g() == 255 && color.b() == 255;
+    }
+
+    /**
+     * Draws the image with the alpha applied by an {@link AlphaComposite}, which Java2D can blend in the pipeline
+     * instead of needing a converted copy of the image for every alpha.
+     */
+    private void drawImageInternal(BufferedImage bufferedImage, Rect2i destinationRegion, Rect2i sourceRegion, float alpha) {
+        if (alpha >= 1f) {
+            drawImageInternal(bufferedImage, destinationRegion, sourceRegion);
+            return;
+        }
+
+        Graphics2D g = (Graphics2D) drawGraphics;
+        Composite originalComposite = g.getComposite();
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, Math.max(alpha, 0f)));
+        drawImageInternal(bufferedImage, destinationRegion, sourceRegion);
+        g.setComposite(originalComposite);
+    }
+
     private void drawImageInternal(BufferedImage bufferedImage, Rect2i destinationRegion, Rect2i sourceRegion) {
 
         ImageObserver observer = null;
@@ -412,6 +473,10 @@ public class AwtCanvasRenderer implements CanvasRenderer {
      */
     @Override
     public void drawTextureBordered(TextureRegion texture, Rect2i region, Border border, boolean tile, float ux, float uy, float uw, float uh, float alpha) {
+        if (recordCall(() -> drawTextureBordered(texture, region, border, tile, ux, uy, uw, uh, alpha),
+                "textureBordered", texture, region, border, tile, ux, uy, uw, uh, alpha)) {
+            return;
+        }
         // TODO: I think we might want to crop at this point, like LwjglCanvasRender does
         drawTextureBorderedWithoutUxUy(texture, region, border, tile, uw, uh, alpha);
     }
@@ -425,101 +490,100 @@ public class AwtCanvasRenderer implements CanvasRenderer {
      * It's unclear why I don't need to use ux/uy
      */
     private void drawTextureBorderedWithoutUxUy(TextureRegion texture, Rect2i region, Border border, boolean tile, float uw, float uh, float alpha) {
-        Texture textureRegionTexture = texture.getTexture();
-        AwtTexture awtTexture = (AwtTexture) textureRegionTexture;
+        AwtTexture awtTexture = (AwtTexture) texture.getTexture();
 
         Vector2i textureSize = new Vector2i(TeraMath.ceilToInt(texture.getWidth() * uw), TeraMath.ceilToInt(texture.getHeight() * uh));
 
-        BufferedImageCacheKey key = new BufferedImageCacheKey(textureSize, region.size(), border, tile, uw, uh, alpha);
-        BufferedImage mesh = awtTexture.getCachedBorderTexture(key);
-        if (mesh == null) {
-
-            Color color = Color.WHITE;
-            BufferedImage source = awtTexture.getBufferedImage(textureRegionTexture.getWidth(), textureRegionTexture.getHeight(), alpha, color);
+        BufferedImage source = awtTexture.getBufferedImage(awtTexture.getWidth(), awtTexture.getHeight(), 1f, Color.WHITE);
 
-            BufferedImageBuilder builder = new BufferedImageBuilder(source, textureSize, region, region.size());
-
-            float topTex = (float) border.getTop() / textureSize.y;
-            float leftTex = (float) border.getLeft() / textureSize.x;
-            float bottomTex = 1f - (float) border.getBottom() / textureSize.y;
-            float rightTex = 1f - (float) border.getRight() / textureSize.x;
-            int centerHoriz = region.width() - border.getTotalWidth();
-            int centerVert = region.height() - border.getTotalHeight();
+        // the nine slices are drawn straight from the texture image, so nothing is kept per region size
+        Graphics2D g = (Graphics2D) drawGraphics;
+        Composite originalComposite = g.getComposite();
+        if (alpha < 1f) {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, Math.max(alpha, 0f)));
+        }
+        // the builder draws through a copy of the graphics, which keeps the composite
+        BufferedImageBuilder builder = new BufferedImageBuilder(source, textureSize, g, region);
+        g.setComposite(originalComposite);
+        addBorderedTexture(builder, textureSize, region, border, tile);
+        builder.dispose();
+    }
 
-            float top = (float) border.getTop() / region.height();
-            float left = (float) border.getLeft() / region.width();
-            float bottom = 1f - (float) border.getBottom() / region.height();
-            float right = 1f - (float) border.getRight() / region.width();
+    private void addBorderedTexture(BufferedImageBuilder builder, Vector2i textureSize, Rect2i region, Border border, boolean tile) {
+        float topTex = (float) border.getTop() / textureSize.y;
+        float leftTex = (float) border.getLeft() / textureSize.x;
+        float bottomTex = 1f - (float) border.getBottom() / textureSize.y;
+        float rightTex = 1f - (float) border.getRight() / textureSize.x;
+        int centerHoriz = region.width() - border.getTotalWidth();
+        int centerVert = region.height() - border.getTotalHeight();
 
-            if (border.getTop() != 0) {
-                if (border.getLeft() != 0) {
-                    addRectPoly(builder, 0, 0, left, top, 0, 0, leftTex, topTex);
-                }
-                if (tile) {
-                    addTiles(builder, Rect2i.createFromMinAndSize(border.getLeft(), 0, centerHoriz, border.getTop()), Rect2f.createFromMinAndMax(left, 0, right, top),
-                            new Vector2i(textureSize.x - border.getTotalWidth(), border.getTop()),
-                            Rect2f.createFromMinAndMax(leftTex, 0, rightTex, topTex));
-                } else {
-                    addRectPoly(builder, left, 0, right, top, leftTex, 0, rightTex, topTex);
-                }
-                if (border.getRight() != 0) {
-                    addRectPoly(builder, right, 0, 1, top, rightTex, 0, 1, topTex);
-                }
-            }
+        float top = (float) border.getTop() / region.height();
+        float left = (float) border.getLeft() / region.width();
+        float bottom = 1f - (float) border.getBottom() / region.height();
+        float right = 1f - (float) border.getRight() / region.width();
 
+        if (border.getTop() != 0) {
             if (border.getLeft() != 0) {
-                if (tile) {
-                    addTiles(builder, Rect2i.createFromMinAndSize(0, border.getTop(), border.getLeft(), centerVert), Rect2f.createFromMinAndMax(0, top, left, bottom),
-                            new Vector2i(border.getLeft(), textureSize.y - border.getTotalHeight()),
-                            Rect2f.createFromMinAndMax(0, topTex, leftTex, bottomTex));
-                } else {
-                    addRectPoly(builder, 0, top, left, bottom, 0, topTex, leftTex, bottomTex);
-                }
+                addRectPoly(builder, 0, 0, left, top, 0, 0, leftTex, topTex);
             }
-
             if (tile) {
-                addTiles(builder, Rect2i.createFromMinAndSize(border.getLeft(), border.getTop(), centerHoriz, centerVert),
-                        Rect2f.createFromMinAndMax(left, top, right, bottom),
-                        new Vector2i(textureSize.x - border.getTotalWidth(), textureSize.y - border.getTotalHeight()),
-                        Rect2f.createFromMinAndMax(leftTex, topTex, rightTex, bottomTex));
+                addTiles(builder, Rect2i.createFromMinAndSize(border.getLeft(), 0, centerHoriz, border.getTop()), Rect2f.createFromMinAndMax(left, 0, right, top),
+                        new Vector2i(textureSize.x - border.getTotalWidth(), border.getTop()),
+                        Rect2f.createFromMinAndMax(leftTex, 0, rightTex, topTex));
             } else {
-                addRectPoly(builder, left, top, right, bottom, leftTex, topTex, rightTex, bottomTex);
+                addRectPoly(builder, left, 0, right, top, leftTex, 0, rightTex, topTex);
             }
-
             if (border.getRight() != 0) {
-                if (tile) {
-                    addTiles(builder, Rect2i.createFromMinAndSize(region.width() - border.getRight(), border.getTop(), border.getRight(), centerVert),
-                            Rect2f.createFromMinAndMax(right, top, 1, bottom),
-                            new Vector2i(border.getRight(), textureSize.y - border.getTotalHeight()),
-                            Rect2f.createFromMinAndMax(rightTex, topTex, 1, bottomTex));
-                } else {
-                    addRectPoly(builder, right, top, 1, bottom, rightTex, topTex, 1, bottomTex);
-                }
+                addRectPoly(builder, right, 0, 1, top, rightTex, 0, 1, topTex);
             }
+        }
 
-            if (border.getBottom() != 0) {
-                if (border.getLeft() != 0) {
-                    addRectPoly(builder, 0, bottom, left, 1, 0, bottomTex, leftTex, 1);
-                }
-                if (tile) {
-                    addTiles(builder, Rect2i.createFromMinAndSize(border.getLeft(), region.height() - border.getBottom(), centerHoriz, border.getBottom()),
-                            Rect2f.createFromMinAndMax(left, bottom, right, 1),
-                            new Vector2i(textureSize.x - border.getTotalWidth(), border.getBottom()),
-                            Rect2f.createFromMinAndMax(leftTex, bottomTex, rightTex, 1));
-                } else {
-                    addRectPoly(builder, left, bottom, right, 1, leftTex, bottomTex, rightTex, 1);
-                }
-                if (border.getRight() != 0) {
-                    addRectPoly(builder, right, bottom, 1, 1, rightTex, bottomTex, 1, 1);
-                }
+        if (border.getLeft() != 0) {
+            if (tile) {
+                addTiles(builder, Rect2i.createFromMinAndSize(0, border.getTop(), border.getLeft(), centerVert), Rect2f.createFromMinAndMax(0, top, left, bottom),
+                        new Vector2i(border.getLeft(), textureSize.y - border.getTotalHeight()),
+                        Rect2f.createFromMinAndMax(0, topTex, leftTex, bottomTex));
+            } else {
+                addRectPoly(builder, 0, top, left, bottom, 0, topTex, leftTex, bottomTex);
             }
+        }
 
-            mesh = builder.build();
-            awtTexture.putCachedBorderTexture(key, mesh);
+        if (tile) {
+            addTiles(builder, Rect2i.createFromMinAndSize(border.getLeft(), border.getTop(), centerHoriz, centerVert),
+                    Rect2f.createFromMinAndMax(left, top, right, bottom),
+                    new Vector2i(textureSize.x - border.getTotalWidth(), textureSize.y - border.getTotalHeight()),
+                    Rect2f.createFromMinAndMax(leftTex, topTex, rightTex, bottomTex));
+        } else {
+            addRectPoly(builder, left, top, right, bottom, leftTex, topTex, rightTex, bottomTex);
+        }
+
+        if (border.getRight() != 0) {
+            if (tile) {
+                addTiles(builder, Rect2i.createFromMinAndSize(region.width() - border.getRight(), border.getTop(), border.getRight(), centerVert),
+                        Rect2f.createFromMinAndMax(right, top, 1, bottom),
+                        new Vector2i(border.getRight(), textureSize.y - border.getTotalHeight()),
+                        Rect2f.createFromMinAndMax(rightTex, topTex, 1, bottomTex));
+            } else {
+                addRectPoly(builder, right, top, 1, bottom, rightTex, topTex, 1, bottomTex);
+            }
         }
 
-        Rect2i sourceRegion = Rect2i.createFromMinAndSize(mesh.getMinX(), mesh.getMinY(), mesh.getWidth(), mesh.getHeight());
-        drawImageInternal(mesh, region, sourceRegion);
+        if (border.getBottom() != 0) {
+            if (border.getLeft() != 0) {
+                addRectPoly(builder, 0, bottom, left, 1, 0, bottomTex, leftTex, 1);
+            }
+            if (tile) {
+                addTiles(builder, Rect2i.createFromMinAndSize(border.getLeft(), region.height() - border.getBottom(), centerHoriz, border.getBottom()),
+                        Rect2f.createFromMinAndMax(left, bottom, right, 1),
+                        new Vector2i(textureSize.x - border.getTotalWidth(), border.getBottom()),
+                        Rect2f.createFromMinAndMax(leftTex, bottomTex, rightTex, 1));
+            } else {
+                addRectPoly(builder, left, bottom, right, 1, leftTex, bottomTex, rightTex, 1);
+            }
+            if (border.getRight() != 0) {
+                addRectPoly(builder, right, bottom, 1, 1, rightTex, bottomTex, 1, 1);
+            }
+        }
     }
 
     private void addRectPoly(BufferedImageBuilder builder,
@@ -557,4 +621,39 @@ public class AwtCanvasRenderer implements CanvasRenderer {
             }
         }
     }
+
+    /**
+     * A draw call of the UI, equal to another one if it draws the same.
+     */
+    private static final class RecordedCall implements Runnable {
+
+        private final Runnable call;
+        private final Object[] arguments;
+
+        RecordedCall(Runnable call, Object[] arguments) {
+            this.call = call;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public void run() {
+            call.run();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof RecordedCall) {
+                return Arrays.equals(arguments, ((RecordedCall) obj).arguments);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(arguments);
+        }
+    }
 }
@@ -16,9 +16,6 @@
 package org.terasology.engine.subsystem.awt.renderer;
 
 import java.awt.Graphics;
-import java.awt.GraphicsConfiguration;
-import java.awt.GraphicsEnvironment;
-import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
 
@@ -26,25 +23,26 @@ import org.terasology.math.geom.Rect2i;
 import org.terasology.math.geom.Vector2i;
 
 /**
+ * Draws parts of a source image into the parts of a drawing region of a render target.
+ * All parts are drawn through one copy of the target graphics, which {@link #dispose()} releases.
  * @author Immortius
  */
 public class BufferedImageBuilder {
     BufferedImage sourceBufferedImage;
-    BufferedImage destinationBufferedImage;
+    Graphics destinationGraphics;
     Vector2i sourceSize;
     Vector2i drawingSize;
+    Vector2i drawingOffset;
 
-    public BufferedImageBuilder(BufferedImage source, Vector2i sourceSize, Rect2i drawingRegion, Vector2i drawingSize) {
+    /**
+     * @param target the graphics to draw into at the position of the drawing region, with the composite and clip to use
+     */
+    public BufferedImageBuilder(BufferedImage source, Vector2i sourceSize, Graphics target, Rect2i drawingRegion) {
         this.sourceBufferedImage = source;
         this.sourceSize = sourceSize;
-        this.drawingSize = drawingSize;
-
-        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
-
-        this.destinationBufferedImage = gc.createCompatibleImage(
-                drawingRegion.width(),
-                drawingRegion.height(),
-                Transparency.TRANSLUCENT);
+        this.drawingSize = drawingRegion.size();
+        this.drawingOffset = drawingRegion.min();
+        this.destinationGraphics = target.create();
     }
 
     public BufferedImageBuilder addSubTextureRegion(
@@ -60,15 +58,13 @@ public class BufferedImageBuilder {
     private void intDrawImage(int minX, int minY, int maxX, int maxY, int texMinX, int texMinY, int texMaxX, int texMaxY) {
         ImageObserver observer = null;
 
-        Graphics g = destinationBufferedImage.getGraphics();
-        g.drawImage(sourceBufferedImage,
-                minX, minY, maxX, maxY,
+        destinationGraphics.drawImage(sourceBufferedImage,
+                drawingOffset.x + minX, drawingOffset.y + minY, drawingOffset.x + maxX, drawingOffset.y + maxY,
                 texMinX, texMinY, texMaxX, texMaxY,
                 observer);
-        g.dispose();
     }
 
-    public BufferedImage build() {
-        return destinationBufferedImage;
+    public void dispose() {
+        destinationGraphics.dispose();
     }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.renderer;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * The printable Latin-1 glyphs of a font, rasterised once into an alpha mask.
+ * Strings are drawn as a run of blits from a copy of the mask in the text colour,
+ * so the cost per glyph does not depend on the text.
+ */
+public class GlyphAtlas {
+
+    private static final char FIRST_CHAR = ' ';
+    private static final char LAST_CHAR = '\u00FF';
+    private static final int GLYPHS_PER_ROW = 16;
+    private static final int MAX_COLORS = 16;
+    // room on either side of a glyph for the parts that reach beyond its advance
+    private static final int GLYPH_PAD = 2;
+
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int ascent;
+    private final int[] advances = new int[LAST_CHAR - FIRST_CHAR + 1];
+    private final boolean[] displayable = new boolean[LAST_CHAR - FIRST_CHAR + 1];
+    private final int[] maskPixels;
+    private final int atlasWidth;
+    private final int atlasHeight;
+
+    // the mask in each colour that was drawn recently, keyed by the RGB of the colour
+    private final Cache<Integer, BufferedImage> coloredAtlases = CacheBuilder.newBuilder().maximumSize(MAX_COLORS).build();
+
+    public GlyphAtlas(Font font) {
+        BufferedImage graphicsProvider = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D metricsGraphics = graphicsProvider.createGraphics();
+        FontMetrics fontMetrics = metricsGraphics.getFontMetrics(font);
+
+        int widest = 1;
+        for (char c = FIRST_CHAR; c <= LAST_CHAR; c++) {
+            int index = c - FIRST_CHAR;
+            displayable[index] = font.canDisplay(c);
+            advances[index] = fontMetrics.charWidth(c);
+            widest = Math.max(widest, advances[index]);
+        }
+        metricsGraphics.dispose();
+
+        cellWidth = widest + 2 * GLYPH_PAD;
+        cellHeight = Math.max(fontMetrics.getAscent() + fontMetrics.getDescent(), 1);
+        ascent = fontMetrics.getAscent();
+
+        int rows = (advances.length + GLYPHS_PER_ROW - 1) / GLYPHS_PER_ROW;
+        atlasWidth = GLYPHS_PER_ROW * cellWidth;
+        atlasHeight = rows * cellHeight;
+
+        BufferedImage mask = new BufferedImage(atlasWidth, atlasHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = mask.createGraphics();
+        g.setFont(font);
+        g.setColor(Color.WHITE);
+        for (char c = FIRST_CHAR; c <= LAST_CHAR; c++) {
+            int index = c - FIRST_CHAR;
+            if (displayable[index]) {
+                g.setClip(getCellX(index), getCellY(index), cellWidth, cellHeight);
+                g.drawString(String.valueOf(c), getCellX(index) + GLYPH_PAD, getCellY(index) + ascent);
+            }
+        }
+        g.dispose();
+
+        maskPixels = ((DataBufferInt) mask.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * @return true if all characters of the text are in the atlas
+     */
+    public boolean canDraw(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < FIRST_CHAR || c > LAST_CHAR || !displayable[c - FIRST_CHAR]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draws the text in the current colour of the graphics, its alpha applied through an {@link AlphaComposite}
+     * on top of the alpha of the current composite.
+     * The text must only contain characters for which {@link #canDraw(String)} is true.
+     * @param baselineY the y-position of the baseline, as for {@link Graphics2D#drawString(String, float, float)}
+     */
+    public void drawString(Graphics2D g, String text, float x, float baselineY) {
+        Color color = g.getColor();
+        BufferedImage atlas = getColoredAtlas(color.getRGB() & 0xFFFFFF);
+
+        Composite originalComposite = null;
+        if (color.getAlpha() != 0xFF) {
+            originalComposite = g.getComposite();
+            float alpha = color.getAlpha() / 255f;
+            if (originalComposite instanceof AlphaComposite) {
+                // as drawString does, fade with the colour and the composite together
+                AlphaComposite alphaComposite = (AlphaComposite) originalComposite;
+                g.setComposite(alphaComposite.derive(alphaComposite.getAlpha() * alpha));
+            } else {
+                g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+            }
+        }
+
+        int destX = Math.round(x) - GLYPH_PAD;
+        int destY = Math.round(baselineY) - ascent;
+        for (int i = 0; i < text.length(); i++) {
+            int index = text.charAt(i) - FIRST_CHAR;
+            if (text.charAt(i) != ' ') {
+                int srcX = getCellX(index);
+                int srcY = getCellY(index);
+                g.drawImage(atlas, destX, destY, destX + cellWidth, destY + cellHeight,
+                        srcX, srcY, srcX + cellWidth, srcY + cellHeight, null);
+            }
+            destX += advances[index];
+        }
+
+        if (null != originalComposite) {
+            g.setComposite(originalComposite);
+        }
+    }
+
+    private BufferedImage getColoredAtlas(int rgb) {
+        BufferedImage atlas = coloredAtlases.getIfPresent(rgb);
+        if (null == atlas) {
+            BufferedImage colored = new BufferedImage(atlasWidth, atlasHeight, BufferedImage.TYPE_INT_ARGB);
+            int[] pixels = ((DataBufferInt) colored.getRaster().getDataBuffer()).getData();
+            for (int i = 0; i < pixels.length; i++) {
+                // the mask is white, so tinting it only keeps its alpha
+                pixels[i] = (maskPixels[i] & 0xFF000000) | rgb;
+            }
+
+            atlas = CompatibleImages.create(atlasWidth, atlasHeight, Transparency.TRANSLUCENT);
+            Graphics2D g = atlas.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(colored, 0, 0, null);
+            g.dispose();
+            coloredAtlases.put(rgb, atlas);
+        }
+        return atlas;
+    }
+
+    private int getCellX(int index) {
+        return (index % GLYPHS_PER_ROW) * cellWidth;
+    }
+
+    private int getCellY(int index) {
+        return (index / GLYPHS_PER_ROW) * cellHeight;
+    }
+}
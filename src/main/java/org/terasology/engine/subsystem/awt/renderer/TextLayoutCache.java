@@ -0,0 +1,248 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.subsystem.awt.renderer;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.text.AttributedCharacterIterator;
+import java.text.AttributedString;
+import java.util.List;
+import java.util.Objects;
+
+import org.terasology.rendering.nui.HorizontalAlign;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Lists;
+
+/**
+ * Keeps the line layouts of recently drawn paragraphs, so text is only broken into lines
+ * and laid out again when it changes. The least recently used paragraphs are evicted first.
+ */
+public class TextLayoutCache {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 512;
+
+    private final Cache<LayoutKey, ParagraphLayout> layouts;
+
+    public TextLayoutCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public TextLayoutCache(int maximumSize) {
+        layouts = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return the lines of the text broken at the width, with their positions relative to the top left corner
+     */
+    public ParagraphLayout getLayout(String text, Font font, FontRenderContext frc, int width, HorizontalAlign alignment) {
+        LayoutKey key = new LayoutKey(text, font, frc, width, alignment);
+        ParagraphLayout layout = layouts.getIfPresent(key);
+        if (null == layout) {
+            layout = ParagraphLayout.create(text, font, frc, width, alignment);
+            layouts.put(key, layout);
+        }
+        return layout;
+    }
+
+    public CacheStats getStats() {
+        return layouts.stats();
+    }
+
+    public long size() {
+        return layouts.size();
+    }
+
+    public void clear() {
+        layouts.invalidateAll();
+    }
+
+    /**
+     * The lines of a paragraph, each with the pen position of its baseline.
+     */
+    public static final class ParagraphLayout {
+
+        private final TextLayout[] lines;
+        private final String[] lineTexts;
+        private final float[] offsetsX;
+        private final float[] baselines;
+        private final float height;
+
+        private ParagraphLayout(TextLayout[] lines, String[] lineTexts, float[] offsetsX, float[] baselines, float height) {
+            this.lines = lines;
+            this.lineTexts = lineTexts;
+            this.offsetsX = offsetsX;
+            this.baselines = baselines;
+            this.height = height;
+        }
+
+        /**
+         * This content is from Stack Overflow.
+         * http://stackoverflow.com/questions/13323701/align-text-to-the-right-in-a-textlayout-using-java-graphics2d-api/13325210#13325210
+         * http://creativecommons.org/licenses/by-sa/3.0/
+         * by giorgiline
+         * http://stackoverflow.com/users/1136158/giorgiline
+         * Note that this code has been modified from the original.
+         * 
+         * Apparently, it's ok to use this code without doing anything further than the above:
+         * http://meta.stackoverflow.com/questions/139698/re-using-ideas-or-small-pieces-of-code-from-stackoverflow-com#139701
+         * Ideally we would contact giorgiline and request an ASF-compatible license, 
+         * but StackOverflow makes it impossible for me to communicate with giorgiline directly.
+         * 
+         * Lay out paragraph.
+         * Pinta un parrafo segun las localizaciones pasadas como parametros.
+         *
+         * @param originalText String to lay out.
+         * @param width Paragraph's desired width.
+         * @param alignment Paragraph's alignment.
+         * @return the lines, positioned relative to the paragraph's start.
+         */
+        static ParagraphLayout create(String originalText, Font font, FontRenderContext frc, int width, HorizontalAlign alignment) {
+            float breakWidth = (float) width;
+            List<TextLayout> lines = Lists.newArrayList();
+            List<String> lineTexts = Lists.newArrayList();
+            List<Float> offsetsX = Lists.newArrayList();
+            List<Float> baselines = Lists.newArrayList();
+
+            float drawPosY = 0f;
+
+            String[] textArray = originalText.split("\n");
+            for (String originalLine : textArray) {
+                String text = originalLine.isEmpty() ? " " : originalLine;
+                AttributedString attstring = new AttributedString(text);
+
+                attstring.addAttribute(TextAttribute.FONT, font);
+                AttributedCharacterIterator paragraph = attstring.getIterator();
+                int paragraphEnd = paragraph.getEndIndex();
+                LineBreakMeasurer lineMeasurer = new LineBreakMeasurer(paragraph, frc);
+                lineMeasurer.setPosition(paragraph.getBeginIndex());
+
+                while (lineMeasurer.getPosition() < paragraphEnd) {
+                    int lineStart = lineMeasurer.getPosition();
+                    TextLayout layout = lineMeasurer.nextLayout(breakWidth);
+                    float drawPosX;
+                    switch (alignment) {
+                        case RIGHT:
+                            drawPosX = breakWidth - layout.getAdvance();
+                            break;
+                        case CENTER:
+                            drawPosX = (breakWidth - layout.getAdvance()) / 2;
+                            break;
+                        default:
+                            drawPosX = 0f;
+                    }
+                    drawPosY += layout.getAscent();
+
+                    lines.add(layout);
+                    lineTexts.add(text.substring(lineStart, lineMeasurer.getPosition()));
+                    offsetsX.add(drawPosX);
+                    baselines.add(drawPosY);
+
+                    drawPosY += layout.getDescent() + layout.getLeading();
+                }
+            }
+
+            float[] offsetsXArray = new float[lines.size()];
+            float[] baselinesArray = new float[lines.size()];
+            for (int i = 0; i < offsetsXArray.length; i++) {
+                offsetsXArray[i] = offsetsX.get(i);
+                baselinesArray[i] = baselines.get(i);
+            }
+            return new ParagraphLayout(lines.toArray(new TextLayout[lines.size()]), lineTexts.toArray(new String[lineTexts.size()]),
+                    offsetsXArray, baselinesArray, drawPosY);
+        }
+
+        /**
+         * @return the height of all lines, including the descent and leading of the last one
+         */
+        public float getHeight() {
+            return height;
+        }
+
+        public int getLineCount() {
+            return lines.length;
+        }
+
+        public void draw(Graphics2D g2, float x, float y) {
+            for (int i = 0; i < lines.length; i++) {
+                lines[i].draw(g2, x + offsetsX[i], y + baselines[i]);
+            }
+        }
+
+        /**
+         * Draws the lines as glyphs from the atlas, in the colour of the graphics.
+         * Lines with characters that are not in the atlas are drawn as text layouts.
+         */
+        public void draw(Graphics2D g2, float x, float y, GlyphAtlas glyphAtlas) {
+            for (int i = 0; i < lines.length; i++) {
+                if (glyphAtlas.canDraw(lineTexts[i])) {
+                    glyphAtlas.drawString(g2, lineTexts[i], x + offsetsX[i], y + baselines[i]);
+                } else {
+                    lines[i].draw(g2, x + offsetsX[i], y + baselines[i]);
+                }
+            }
+        }
+    }
+
+    private static final class LayoutKey {
+
+        private final String text;
+        private final Font font;
+        private final FontRenderContext frc;
+        private final int width;
+        private final HorizontalAlign alignment;
+        private final int hashCode;
+
+        LayoutKey(String text, Font font, FontRenderContext frc, int width, HorizontalAlign alignment) {
+            this.text = text;
+            this.font = font;
+            this.frc = frc;
+            this.width = width;
+            this.alignment = alignment;
+            this.hashCode = Objects.hash(text, font, frc, width, alignment);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof LayoutKey)) {
+                return false;
+            }
+            LayoutKey other = (LayoutKey) obj;
+            return width == other.width
+                   && alignment == other.alignment
+                   && text.equals(other.text)
+                   && font.equals(other.font)
+                   && frc.equals(other.frc);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}